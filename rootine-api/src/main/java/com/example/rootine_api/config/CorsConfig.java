@@ -1,8 +1,10 @@
 package com.example.rootine_api.config;
 
+import com.example.rootine_api.pagination.KeysetPage;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -16,7 +18,8 @@ public class CorsConfig {
                 registry.addMapping("/**")
                         .allowedOrigins("http://localhost:5173")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("Authorization", "Content-Type")
+                        .allowedHeaders("Authorization", "Content-Type", HttpHeaders.IF_NONE_MATCH)
+                        .exposedHeaders(KeysetPage.NEXT_CURSOR_HEADER, HttpHeaders.RETRY_AFTER, HttpHeaders.ETAG)
                         .allowCredentials(true);
             }
         };
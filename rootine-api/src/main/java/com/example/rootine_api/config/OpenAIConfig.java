@@ -6,6 +6,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
 
 @Configuration
 public class OpenAIConfig {
@@ -14,8 +17,33 @@ public class OpenAIConfig {
     @Value("${openai.api.key}")
     private String openAIApiKey;
 
+    @Value("${rootine.openai.timeout:60s}")
+    private Duration openAITimeout;
+
     @Bean
     public OpenAIClient openAIClient() {
-        return OpenAIOkHttpClient.builder().apiKey(openAIApiKey).build();
+        // Bounds each HTTP request, so a hung upstream call eventually frees its openAIExecutor thread.
+        return OpenAIOkHttpClient.builder().apiKey(openAIApiKey).timeout(openAITimeout).build();
+    }
+
+    /**
+     * Runs completions (streaming and async) off the request threads. Bounded, so a burst of
+     * generations queues (then gets rejected) instead of spawning unbounded threads; the thread
+     * count is the cap on concurrent upstream calls.
+     * Not a default candidate: injected by name only, so Spring Boot's applicationTaskExecutor
+     * (used for MVC async requests) is still auto-configured.
+     */
+    @Bean(name = "openAIExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor openAIExecutor(
+            @Value("${rootine.openai.executor.threads:16}") int threads,
+            @Value("${rootine.openai.executor.queue-capacity:64}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("openai-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
     }
 }
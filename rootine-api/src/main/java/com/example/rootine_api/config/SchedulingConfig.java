@@ -0,0 +1,25 @@
+package com.example.rootine_api.config;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Enables @Scheduled background jobs (e.g. SimilarRoutineIndex snapshots).
+ * Kept out of RootineApiApplication so slice tests don't start the scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    /**
+     * Declared explicitly because Spring Boot skips its own once the STOMP broker registers
+     * messageBrokerTaskScheduler; jobs would otherwise share the broker's heartbeat scheduler.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+}
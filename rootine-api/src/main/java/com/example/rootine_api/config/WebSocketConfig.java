@@ -0,0 +1,95 @@
+package com.example.rootine_api.config;
+
+import com.example.rootine_api.security.StompAuthChannelInterceptor;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.time.Duration;
+
+/**
+ * STOMP over WebSocket at /ws, used to push routine/task changes (RoutineChangeNotifier) to clients.
+ *
+ * The in-memory broker only serves user destinations: each change is routed to the owner's own
+ * sessions, never broadcast. Writes to a session are buffered per session, so one slow client never
+ * holds an outbound thread; a client that falls further behind than send-buffer-size, or whose
+ * buffered send takes longer than send-time-limit, is disconnected and refetches on reconnect.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final TaskScheduler messageBrokerTaskScheduler;
+
+    @Value("${rootine.websocket.heartbeat:10s}")
+    private Duration heartbeat;
+
+    @Value("${rootine.websocket.send-time-limit:10s}")
+    private Duration sendTimeLimit;
+
+    @Value("${rootine.websocket.send-buffer-size:256KB}")
+    private DataSize sendBufferSize;
+
+    // Lazy: the scheduler is itself defined by the broker configuration this class customizes.
+    public WebSocketConfig(StompAuthChannelInterceptor stompAuthChannelInterceptor,
+                           @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
+
+    /**
+     * Spring Boot's applicationTaskExecutor (MVC async requests, RoutineGenerationServiceImpl), declared
+     * the way Boot would: Boot backs off as soon as any Executor bean exists, and the STOMP channel
+     * executors registered by @EnableWebSocketMessageBroker are Executor beans.
+     */
+    @Lazy
+    @Bean(name = {"applicationTaskExecutor", AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    public void registerStompEndpoints(@NotNull StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOrigins("http://localhost:5173");
+    }
+
+    @Override
+    public void configureMessageBroker(@NotNull MessageBrokerRegistry registry) {
+        // Heartbeats let both sides notice dead connections (e.g. a phone that lost network).
+        long heartbeatMillis = heartbeat.toMillis();
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+        registry.setUserDestinationPrefix("/user");
+        // Clients never SEND, so no application destinations are mapped.
+    }
+
+    @Override
+    public void configureClientInboundChannel(@NotNull ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureWebSocketTransport(@NotNull WebSocketTransportRegistration registration) {
+        registration
+                .setSendTimeLimit((int) sendTimeLimit.toMillis())
+                .setSendBufferSizeLimit((int) sendBufferSize.toBytes())
+                // Inbound frames are only CONNECT/SUBSCRIBE/DISCONNECT.
+                .setMessageSizeLimit(8 * 1024);
+    }
+}
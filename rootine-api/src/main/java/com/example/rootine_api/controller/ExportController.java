@@ -0,0 +1,62 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.security.AuthService;
+import com.example.rootine_api.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/export")
+@CrossOrigin
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AuthService authService;
+
+    // One routine per line, tasks nested. ?gzip=true returns a .ndjson.gz download instead.
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportCurrentUser(
+        @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        // Resolved here: the body is written on another thread, outside the security context.
+        Integer userId = authService.getCurrentUserId();
+        return stream(gzip, out -> exportService.exportUser(userId, out, gzip));
+    }
+
+    @GetMapping("/all")
+    public ResponseEntity<StreamingResponseBody> exportAll(
+        @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        if (!authService.isCurrentUserAdmin()) {
+            throw new AccessDeniedException(
+                "You are not authorized to perform this action."
+            );
+        }
+        return stream(gzip, out -> exportService.exportAll(out, gzip));
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(
+        boolean gzip,
+        StreamingResponseBody body
+    ) {
+        String filename = gzip ? "rootine-export.ndjson.gz" : "rootine-export.ndjson";
+        return ResponseEntity.ok()
+            .contentType(gzip ? GZIP : NDJSON)
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + filename + "\""
+            )
+            .body(body);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.dto.ImportReport;
+import com.example.rootine_api.security.AuthService;
+import com.example.rootine_api.service.ImportService;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/import")
+@CrossOrigin
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Bulk-creates routines (with nested tasks) for the current user.
+     * Body: NDJSON (one routine per line, e.g. a file from GET /export) or a JSON array,
+     * optionally sent with Content-Encoding: gzip. Always answers 200 with a per-record report.
+     */
+    @PostMapping(consumes = { "application/x-ndjson", "application/json" })
+    public ResponseEntity<ImportReport> importRoutines(
+        InputStream body,
+        @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding
+    ) throws IOException {
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding)
+            ? new GZIPInputStream(body)
+            : body;
+        ImportReport report = importService.importRoutines(
+            authService.getCurrentUserId(),
+            in
+        );
+        return ResponseEntity.ok(report);
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.rootine_api.controller;
 
 import com.example.rootine_api.service.OpenAIService;
+import com.example.rootine_api.service.RoutineStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/openai")
@@ -13,10 +18,19 @@ public class OpenAIController {
     @Autowired
     private OpenAIService openAIService;
 
+    @Autowired
+    private RoutineStreamService routineStreamService;
+
     @PostMapping("/response")
-    private ResponseEntity<String> getOpenAIResponse(@RequestBody String prompt){
-        String response = openAIService.generateRoutine(prompt);
-        return ResponseEntity.ok(response);
+    private CompletableFuture<ResponseEntity<String>> getOpenAIResponse(@RequestBody String prompt){
+        // Async: the servlet thread is released while the model runs on the openAIExecutor.
+        return openAIService.generateRoutineAsync(prompt).thenApply(ResponseEntity::ok);
+    }
+
+    // Same generation, relayed as server-sent events (token / task / done / error) while the model writes it.
+    @PostMapping(value = "/response/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOpenAIResponse(@RequestBody String prompt) {
+        return routineStreamService.stream(prompt);
     }
 
 }
\ No newline at end of file
@@ -1,15 +1,21 @@
 package com.example.rootine_api.controller;
 
+import com.example.rootine_api.dto.RoutineTimeline;
 import com.example.rootine_api.model.Routine;
 import com.example.rootine_api.model.Task;
-import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.security.AuthService;
+import com.example.rootine_api.service.RoutineGenerationService;
 import com.example.rootine_api.service.RoutineService;
-import com.example.rootine_api.service.UserService;
-import java.security.Principal;
+import com.example.rootine_api.service.RoutineTimelineService;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/routine")
@@ -20,37 +26,75 @@ public class RoutineController {
     private RoutineService routineService;
 
     @Autowired
-    private UserService userService;
+    private RoutineGenerationService routineGenerationService;
 
+    @Autowired
+    private RoutineTimelineService routineTimelineService;
+
+    @Autowired
+    private AuthService authService;
+
+    // Listings are keyset-paginated: pass the X-Next-Cursor header back as ?cursor= for the next page.
     @GetMapping("/routines")
-    public ResponseEntity<List<Routine>> getAllRoutines() {
-        List<Routine> routines = routineService.getAllRoutines();
-        return ResponseEntity.ok(routines);
+    public ResponseEntity<List<Routine>> getAllRoutines(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
+    ) {
+        KeysetPage<Routine> page = routineService.getAllRoutines(cursor, limit);
+        return ResponseEntity.ok().headers(page.headers()).body(page.getItems());
     }
 
+    /**
+     * Conditional: answers 304 to a matching If-None-Match after a version lookup only.
+     * The version is read before the routine, so the ETag sent is never newer than the body.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Routine> getRoutineById(@PathVariable Integer id) {
+    public ResponseEntity<Routine> getRoutineById(@PathVariable Integer id, WebRequest request) {
+        Optional<Long> version = routineService.getRoutineVersion(id);
+        String etag = version.map(v -> "\"routine-" + id + "-" + v + "\"").orElse(null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+
+        // Not found / not the caller's: the full read raises the usual error.
         Routine routine = routineService.getRoutineById(id);
-        return ResponseEntity.ok(routine);
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(routine);
+    }
+
+    /**
+     * The caller's active routine as a day timeline (slots, gaps, overlaps), for the home screen.
+     * 404 when no routine is active.
+     */
+    @GetMapping("/active/timeline")
+    public ResponseEntity<RoutineTimeline> getActiveTimeline() {
+        return ResponseEntity.ok(
+            routineTimelineService.getActiveTimeline(authService.getCurrentUserId())
+        );
     }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<Routine>> getRoutinesByUserId(
-        @PathVariable Integer userId
+        @PathVariable Integer userId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
     ) {
-        List<Routine> routines = routineService.getRoutinesByUserId(userId);
-        return ResponseEntity.ok(routines);
+        KeysetPage<Routine> page = routineService.getRoutinesByUserId(
+            userId,
+            cursor,
+            limit
+        );
+        return ResponseEntity.ok().headers(page.headers()).body(page.getItems());
     }
 
     @PostMapping
     public ResponseEntity<Routine> addRoutine(
-        @RequestBody Routine routine,
-        Principal principal
+        @RequestBody Routine routine
     ) {
-        User user = userService.getUserByEmail(principal.getName());
-
-        // Ensure the routine is owned by the authenticated user
-        routine.setUser(user);
+        // Ensure the routine is owned by the authenticated user (id comes from the JWT, no user lookup)
+        routine.setUser(authService.getCurrentUserReference());
 
         // IMPORTANT (nested create):
         // If the client sends tasks inline under the routine, those Task entities must have their
@@ -68,6 +112,18 @@ public class RoutineController {
         return ResponseEntity.ok(savedRoutine);
     }
 
+    /**
+     * Generates a routine from a free-text prompt (the body, as for POST /openai/response)
+     * and saves it for the current user in the same call. Answers with the saved routine.
+     */
+    @PostMapping("/generate")
+    public CompletableFuture<ResponseEntity<Routine>> generateRoutine(@RequestBody String prompt) {
+        // Resolved here: the security context does not follow the request onto other threads.
+        Integer userId = authService.getCurrentUserId();
+        return routineGenerationService.generateAndSave(userId, prompt)
+            .thenApply(ResponseEntity::ok);
+    }
+
     @PostMapping("/{id}/activate")
     public ResponseEntity<Routine> activateRoutine(@PathVariable Integer id) {
         Routine updated = routineService.activateRoutine(id);
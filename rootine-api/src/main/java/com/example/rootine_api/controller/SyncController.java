@@ -0,0 +1,29 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.dto.SyncChanges;
+import com.example.rootine_api.security.AuthService;
+import com.example.rootine_api.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/sync")
+@CrossOrigin
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private AuthService authService;
+
+    /**
+     * Delta sync for reconnecting clients: the caller's routines and tasks changed after ?since=
+     * (the version from the previous response), plus deletions. Without since, a full snapshot.
+     */
+    @GetMapping
+    public ResponseEntity<SyncChanges> getChanges(@RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(syncService.getChanges(authService.getCurrentUserId(), since));
+    }
+}
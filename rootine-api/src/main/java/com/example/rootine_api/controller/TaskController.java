@@ -1,15 +1,19 @@
 package com.example.rootine_api.controller;
 
+import com.example.rootine_api.dto.MoveTaskRequest;
 import com.example.rootine_api.dto.ReorderTasksRequest;
-import com.example.rootine_api.model.Routine;
 import com.example.rootine_api.model.Task;
+import com.example.rootine_api.pagination.KeysetPage;
 import com.example.rootine_api.service.RoutineService;
 import com.example.rootine_api.service.TaskService;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/task")
@@ -24,22 +28,38 @@ public class TaskController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable Integer id) {
-        // Ownership is enforced in TaskService.getTaskById via update/delete paths;
-        // for read, we rely on the same ownership model by checking through routine fetch below.
+        // Ownership is enforced inside the owner-scoped query in TaskService.getTaskById.
         Task task = taskService.getTaskById(id);
         return ResponseEntity.ok(task);
     }
 
     @GetMapping("/routine/{routineId}")
     public ResponseEntity<List<Task>> getTasksByRoutineId(
-        @PathVariable Integer routineId
+        @PathVariable Integer routineId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request
     ) {
-        // Enforce ownership by attempting to load the routine first.
-        // RoutineService.getRoutineById will succeed only for authorized users (via service-level checks if present).
-        routineService.getRoutineById(routineId);
+        // Any task change bumps the routine's version, so it validates every page of the list;
+        // the cursor and limit are in the URL the ETag belongs to.
+        Optional<Long> version = routineService.getRoutineVersion(routineId);
+        String etag = version.map(v -> "\"tasks-" + routineId + "-" + v + "\"").orElse(null);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
 
-        List<Task> tasks = taskService.getTasksByRoutineId(routineId);
-        return ResponseEntity.ok(tasks);
+        // Owner-scoped in one query; no separate routine load needed.
+        // Keyset-paginated by (position, taskId); the next page's cursor is in X-Next-Cursor.
+        KeysetPage<Task> page = taskService.getTasksByRoutineId(
+            routineId,
+            cursor,
+            limit
+        );
+        return ResponseEntity.ok()
+            .headers(page.headers())
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(page.getItems());
     }
 
     @PostMapping
@@ -47,11 +67,8 @@ public class TaskController {
         @RequestBody Task task,
         @RequestParam Integer routineId
     ) {
-        // Enforce ownership by loading routine; service layer should verify owner/admin.
-        Routine routine = routineService.getRoutineById(routineId);
-
-        task.setRoutine(routine);
-        Task savedTask = taskService.addTask(task);
+        // The service verifies the routine belongs to the caller (or admin) before inserting.
+        Task savedTask = taskService.addTask(routineId, task);
 
         return ResponseEntity.ok(savedTask);
     }
@@ -64,18 +81,46 @@ public class TaskController {
      *   "orderedTaskIds": [12, 5, 9]
      * }
      *
-     * The first id gets position 0, next gets 1, etc.
+     * The first id gets position 0, next gets POSITION_GAP, etc.
+     * Applied as a single set-based UPDATE.
      */
     @PutMapping("/routine/{routineId}/reorder")
     public ResponseEntity<Void> reorderTasks(
         @PathVariable Integer routineId,
         @Valid @RequestBody ReorderTasksRequest request
     ) {
-        // Ownership is enforced by the service method (and/or by routineService.getRoutineById on read paths).
+        // Ownership is enforced by the service method (owner-scoped task lookup).
         taskService.reorderTasks(routineId, request.getOrderedTaskIds());
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Move one task before or after another task in the same routine.
+     *
+     * Body (exactly one):
+     * {
+     *   "beforeTaskId": 12
+     * }
+     * or
+     * {
+     *   "afterTaskId": 12
+     * }
+     *
+     * Only the moved task's row is updated in the common case.
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<Task> moveTask(
+        @PathVariable Integer id,
+        @RequestBody MoveTaskRequest request
+    ) {
+        Task movedTask = taskService.moveTask(
+            id,
+            request.getBeforeTaskId(),
+            request.getAfterTaskId()
+        );
+        return ResponseEntity.ok(movedTask);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Task> updateTask(
         @PathVariable Integer id,
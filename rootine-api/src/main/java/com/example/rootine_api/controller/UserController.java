@@ -1,6 +1,7 @@
 package com.example.rootine_api.controller;
 
 import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
 import com.example.rootine_api.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +20,12 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    // Keyset-paginated: pass the X-Next-Cursor header back as ?cursor= for the next page.
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUser();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit) {
+        KeysetPage<User> page = userService.getAllUser(cursor, limit);
+        return ResponseEntity.ok().headers(page.headers()).body(page.getItems());
     }
 
     @GetMapping("/{id}")
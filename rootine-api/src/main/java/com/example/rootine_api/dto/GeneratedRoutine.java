@@ -0,0 +1,68 @@
+package com.example.rootine_api.dto;
+
+import com.example.rootine_api.enums.DetailLevel;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A routine as produced by the model in structured-output mode.
+ *
+ * The JSON schema sent with each request is derived from this class (and GeneratedTask),
+ * so field names and enum values match the Routine/Task JSON the rest of the API uses.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GeneratedRoutine {
+
+    @JsonPropertyDescription("Short routine name")
+    private String name;
+
+    private DetailLevel detailLevel;
+
+    @JsonPropertyDescription("Overall routine description, empty if none")
+    private String description;
+
+    private List<GeneratedTask> tasks = new ArrayList<>();
+
+    /**
+     * Checks what the schema cannot express.
+     * Throws IllegalArgumentException naming the offending field (e.g. "tasks[2].startTime").
+     */
+    public void validate() {
+        if (detailLevel == null) {
+            throw new IllegalArgumentException("detailLevel is required");
+        }
+        if (tasks == null) {
+            throw new IllegalArgumentException("tasks is required");
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            GeneratedTask task = tasks.get(i);
+            String path = "tasks[" + i + "]";
+            if (task == null) {
+                throw new IllegalArgumentException(path + " is null");
+            }
+            if (task.getTitle() == null || task.getTitle().isBlank() || task.getTitle().length() > 150) {
+                throw new IllegalArgumentException(path + ".title must be 1-150 characters");
+            }
+            if (task.getDuration() == null || task.getDuration() <= 0) {
+                throw new IllegalArgumentException(path + ".duration must be a positive number of minutes");
+            }
+            if (task.getStartTime() != null) {
+                try {
+                    LocalTime.parse(task.getStartTime());
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException(path + ".startTime must be HH:mm:ss");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rootine_api.dto;
+
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One task of a GeneratedRoutine.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class GeneratedTask {
+
+    private String title;
+
+    @JsonPropertyDescription("Empty if none")
+    private String description;
+
+    private TaskType taskType;
+
+    @JsonPropertyDescription("Time of day, 24h HH:mm:ss")
+    private String startTime;
+
+    @JsonPropertyDescription("Minutes, positive")
+    private Integer duration;
+
+    private Priority priority;
+}
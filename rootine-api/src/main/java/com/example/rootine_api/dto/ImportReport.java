@@ -0,0 +1,29 @@
+package com.example.rootine_api.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of a bulk import. Records are numbered from 1 in input order.
+ * Only the first errors are listed (see errorsTruncated); failed always has the full count.
+ */
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RecordError> errors;
+    private boolean errorsTruncated;
+    private long durationMs;
+    private double recordsPerSecond;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RecordError {
+        private long record;
+        private String message;
+    }
+}
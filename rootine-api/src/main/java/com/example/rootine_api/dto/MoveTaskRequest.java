@@ -0,0 +1,33 @@
+package com.example.rootine_api.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Request payload for moving a single task within its routine.
+
+ * Expected JSON (exactly one of the two):
+ * {
+ *   "beforeTaskId": 12
+ * }
+ * or
+ * {
+ *   "afterTaskId": 12
+ * }
+ */
+@Setter
+@Getter
+public class MoveTaskRequest {
+
+    private Integer beforeTaskId;
+
+    private Integer afterTaskId;
+
+    public MoveTaskRequest() {}
+
+    public MoveTaskRequest(Integer beforeTaskId, Integer afterTaskId) {
+        this.beforeTaskId = beforeTaskId;
+        this.afterTaskId = afterTaskId;
+    }
+
+}
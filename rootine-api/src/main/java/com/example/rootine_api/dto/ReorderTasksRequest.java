@@ -15,7 +15,7 @@ import java.util.List;
  *   "orderedTaskIds": [12, 5, 9]
  * }
 
- * The first id gets position 0, next gets 1, etc.
+ * The first id gets position 0, next gets POSITION_GAP, etc. (sparse ranks).
  */
 @Setter
 @Getter
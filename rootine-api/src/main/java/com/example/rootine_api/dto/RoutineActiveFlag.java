@@ -0,0 +1,8 @@
+package com.example.rootine_api.dto;
+
+/**
+ * Whether a routine is the active one, read with its row locked (RoutineRepo.lockActiveFlagsForUser).
+ * A projection, so the read does not load the user's routines as entities.
+ */
+public record RoutineActiveFlag(Integer routineId, Boolean isActive) {
+}
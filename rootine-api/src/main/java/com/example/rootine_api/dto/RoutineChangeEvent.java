@@ -0,0 +1,68 @@
+package com.example.rootine_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A committed change to one of a user's routines or tasks, pushed to that user's
+ * WebSocket sessions on /user/queue/changes.
+ *
+ * Deliberately small: it says what changed, not the new state, so clients fetch
+ * the difference (GET /sync) instead of polling.
+ * taskId is null for routine-level changes. userId only routes the message and is not sent;
+ * neither are deactivatedRoutineIds, the routines an ACTIVATED change switched off (for sync stamps).
+ *
+ * Example payload:
+ * {
+ *   "entity": "TASK",
+ *   "action": "MOVED",
+ *   "routineId": 7,
+ *   "taskId": 42,
+ *   "at": "2026-10-18T09:30:00Z"
+ * }
+ */
+public record RoutineChangeEvent(
+    @JsonIgnore Integer userId,
+    Entity entity,
+    Action action,
+    Integer routineId,
+    Integer taskId,
+    Instant at,
+    @JsonIgnore List<Integer> deactivatedRoutineIds
+) {
+
+    public enum Entity {
+        ROUTINE,
+        TASK
+    }
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        REORDERED,
+        MOVED,
+        ACTIVATED,
+        DELETED
+    }
+
+    public static RoutineChangeEvent routine(Integer userId, Action action, Integer routineId) {
+        return new RoutineChangeEvent(userId, Entity.ROUTINE, action, routineId, null, Instant.now(), List.of());
+    }
+
+    public static RoutineChangeEvent activated(Integer userId, Integer routineId, List<Integer> deactivatedRoutineIds) {
+        return new RoutineChangeEvent(
+            userId,
+            Entity.ROUTINE,
+            Action.ACTIVATED,
+            routineId,
+            null,
+            Instant.now(),
+            List.copyOf(deactivatedRoutineIds)
+        );
+    }
+
+    public static RoutineChangeEvent task(Integer userId, Action action, Integer routineId, Integer taskId) {
+        return new RoutineChangeEvent(userId, Entity.TASK, action, routineId, taskId, Instant.now(), List.of());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rootine_api.dto;
+
+import com.example.rootine_api.enums.DetailLevel;
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * One row of the export query: a routine joined with one of its tasks
+ * (task columns are null for a routine without tasks).
+ *
+ * A flat projection rather than entities, so streaming rows never fills the persistence context.
+ * Rows arrive grouped by routineId and ordered by (position, taskId) within a routine.
+ */
+public record RoutineExportRow(
+    Integer routineId,
+    Integer userId,
+    String name,
+    String description,
+    DetailLevel detailLevel,
+    Boolean isActive,
+    LocalDateTime createdAt,
+    Integer taskId,
+    String taskTitle,
+    String taskDescription,
+    TaskType taskType,
+    LocalTime taskStartTime,
+    Integer taskDuration,
+    Priority taskPriority,
+    Boolean taskIsCompleted,
+    Integer taskPosition,
+    LocalDateTime taskCreatedAt
+) {}
@@ -0,0 +1,59 @@
+package com.example.rootine_api.dto;
+
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import com.example.rootine_api.model.Task;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Response of GET /routine/active/timeline: the caller's active routine laid out over a day.
+ *
+ * slots holds the tasks with a startTime, ordered by start (then by their position in the
+ * routine); a task without duration takes no time. gaps are the free intervals between the
+ * first start and the last end, overlaps every pair of tasks scheduled at the same time.
+ * A slot running past midnight has endsNextDay set and its endTime on the next day.
+ * Tasks without a startTime are listed in unscheduled, in routine order.
+ */
+public record RoutineTimeline(
+    Integer routineId,
+    String name,
+    List<Slot> slots,
+    List<Gap> gaps,
+    List<Overlap> overlaps,
+    List<Slot> unscheduled
+) {
+
+    public record Slot(
+        Integer taskId,
+        String title,
+        TaskType taskType,
+        Priority priority,
+        Boolean isCompleted,
+        LocalTime startTime,
+        LocalTime endTime,
+        Integer duration,
+        boolean endsNextDay
+    ) {
+        public static Slot of(Task task, LocalTime endTime, boolean endsNextDay) {
+            return new Slot(
+                task.getTaskId(),
+                task.getTitle(),
+                task.getTaskType(),
+                task.getPriority(),
+                task.getIsCompleted(),
+                task.getStartTime(),
+                endTime,
+                task.getDuration(),
+                endsNextDay
+            );
+        }
+    }
+
+    public record Gap(LocalTime startTime, LocalTime endTime, int minutes) {
+    }
+
+    // taskId starts first (or at the same time); the interval is the time both are scheduled.
+    public record Overlap(Integer taskId, Integer otherTaskId, LocalTime startTime, LocalTime endTime, int minutes) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.rootine_api.dto;
+
+import com.example.rootine_api.enums.DetailLevel;
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.SyncTombstone;
+import com.example.rootine_api.model.Task;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Response of GET /sync: the caller's routines and tasks changed after the version the client holds.
+ *
+ * version is the cursor for the next call. With full=true (no since given) the lists hold everything
+ * and replace the client's state; otherwise rows are upserts and deleted lists what to drop
+ * (a deleted routine takes its tasks with it). A row may show up again in a later response.
+ */
+public record SyncChanges(
+    long version,
+    boolean full,
+    List<RoutineChange> routines,
+    List<TaskChange> tasks,
+    List<Deletion> deleted
+) {
+
+    public record RoutineChange(
+        Integer routineId,
+        String name,
+        String description,
+        DetailLevel detailLevel,
+        Boolean isActive,
+        LocalDateTime createdAt
+    ) {
+        public static RoutineChange of(Routine routine) {
+            return new RoutineChange(
+                routine.getRoutineId(),
+                routine.getName(),
+                routine.getDescription(),
+                routine.getDetailLevel(),
+                routine.getIsActive(),
+                routine.getCreatedAt()
+            );
+        }
+    }
+
+    public record TaskChange(
+        Integer taskId,
+        Integer routineId,
+        String title,
+        String description,
+        TaskType taskType,
+        LocalTime startTime,
+        Integer duration,
+        Priority priority,
+        Boolean isCompleted,
+        Integer position,
+        LocalDateTime createdAt
+    ) {
+        public static TaskChange of(Task task) {
+            return new TaskChange(
+                task.getTaskId(),
+                task.getRoutine().getRoutineId(),
+                task.getTitle(),
+                task.getDescription(),
+                task.getTaskType(),
+                task.getStartTime(),
+                task.getDuration(),
+                task.getPriority(),
+                task.getIsCompleted(),
+                task.getPosition(),
+                task.getCreatedAt()
+            );
+        }
+    }
+
+    public record Deletion(
+        RoutineChangeEvent.Entity entity,
+        Integer id,
+        Integer routineId
+    ) {
+        public static Deletion of(SyncTombstone tombstone) {
+            return new Deletion(tombstone.getEntity(), tombstone.getEntityId(), tombstone.getRoutineId());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.rootine_api.exception;
+
+public class GenerationBusyException extends RuntimeException {
+    public GenerationBusyException(String message) {
+        super(message);
+    }
+}
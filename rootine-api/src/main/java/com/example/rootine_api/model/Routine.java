@@ -15,19 +15,41 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "routine")
+@Table(
+    name = "routine",
+    indexes = {
+        // Keyset pagination seeks: (createdAt, routineId), overall and per user
+        @Index(name = "idx_routine_created", columnList = "created_at, routine_id"),
+        @Index(name = "idx_routine_user_created", columnList = "user_id, created_at, routine_id"),
+        // A user's active routine: (userId, isActive)
+        @Index(name = "idx_routine_user_active", columnList = "user_id, is_active"),
+        // Delta sync: a user's routines changed since a version
+        @Index(name = "idx_routine_user_sync", columnList = "user_id, sync_version"),
+    }
+)
+@NamedEntityGraph(
+    name = Routine.WITH_TASKS,
+    attributeNodes = @NamedAttributeNode("tasks")
+)
 @Setter
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Routine {
 
+    /** Fetch plan for responses that serialize the routine together with its tasks. */
+    public static final String WITH_TASKS = "Routine.withTasks";
+
+    // Pooled ids (50 per round trip) instead of IDENTITY, so inserts can be JDBC-batched.
+    // MySQL has no sequences; Hibernate emulates "routine_seq" with a single-row table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "routine_seq")
+    @SequenceGenerator(name = "routine_seq", sequenceName = "routine_seq", allocationSize = 50)
     @Column(name = "routine_id")
     private Integer routineId;
 
-    @ManyToOne
+    // Lazy: ownership checks only need the FK (getUserId() on the proxy does not hit the DB).
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     @JoinColumn(name = "user_id")
@@ -43,6 +65,8 @@ public class Routine {
     @Column(name = "detail_level")
     private DetailLevel detailLevel = DetailLevel.medium;
 
+    // At most one per user: the unmapped generated column active_user_id (the owner while active)
+    // carries the unique index uk_routine_active_user (V4 migration).
     @Column(name = "is_active")
     private Boolean isActive = false;
 
@@ -50,6 +74,32 @@ public class Routine {
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    /**
+     * Next free Task.position for appends within this routine.
+     * Advanced atomically by RoutineRepo.reserveTaskPosition; null for routines created
+     * before the counter existed (initialized from MAX(position) on first use).
+     */
+    @JsonIgnore
+    @Column(name = "next_task_position")
+    private Integer nextTaskPosition;
+
+    /**
+     * Owner's sync version at the last change to this routine (see SyncVersionTracker).
+     * Null for routines not changed since change tracking was introduced.
+     */
+    @JsonIgnore
+    @Column(name = "sync_version")
+    private Long syncVersion;
+
+    /**
+     * Content version behind the ETags of GET /routine/{id} and GET /task/routine/{id}.
+     * Bumped (SyncVersionTracker) whenever the routine or any of its tasks changes;
+     * null reads as 0 for routines not changed since it was introduced.
+     */
+    @JsonIgnore
+    @Column(name = "version")
+    private Long version;
+
     /**
      * Tasks that belong to this routine.
      *
@@ -63,7 +113,10 @@ public class Routine {
      * - Task owns the FK via Task.routine (mappedBy="routine").
      * - cascade = ALL so tasks are persisted/updated when routine is saved.
      * - orphanRemoval = true so removed tasks are deleted.
+     * - Lazy by default; read endpoints load it through the WITH_TASKS entity graph
+     *   so a list of routines costs one query instead of one per routine.
      */
+    @OrderBy("position ASC, taskId ASC")
     @OneToMany(
         mappedBy = "routine",
         cascade = CascadeType.ALL,
@@ -0,0 +1,58 @@
+package com.example.rootine_api.model;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Record of a deleted routine or task, so delta sync can tell clients to drop it.
+ * Deleting a routine records only the routine: its tasks go with it.
+ */
+@Entity
+@Table(
+    name = "sync_tombstone",
+    indexes = {
+        // Delta sync: a user's deletions since a version
+        @Index(name = "idx_sync_tombstone_user_version", columnList = "user_id, sync_version"),
+    }
+)
+@Setter
+@Getter
+@NoArgsConstructor
+public class SyncTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "tombstone_id")
+    private Long tombstoneId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity", nullable = false, length = 16)
+    private RoutineChangeEvent.Entity entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Integer entityId;
+
+    @Column(name = "routine_id")
+    private Integer routineId;
+
+    @Column(name = "sync_version", nullable = false)
+    private Long syncVersion;
+
+    public SyncTombstone(User user, RoutineChangeEvent.Entity entity, Integer entityId, Integer routineId, Long syncVersion) {
+        this.user = user;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.routineId = routineId;
+        this.syncVersion = syncVersion;
+    }
+}
@@ -15,19 +15,32 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
-@Table(name = "task")
+@Table(
+    name = "task",
+    indexes = {
+        // Ordered reads and keyset pagination within a routine: (position, taskId)
+        @Index(name = "idx_task_routine_position", columnList = "routine_id, position, task_id"),
+        // Delta sync: tasks of a routine changed since a version
+        @Index(name = "idx_task_routine_sync", columnList = "routine_id, sync_version"),
+    }
+)
 @Setter
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    // Pooled ids (50 per round trip) instead of IDENTITY, so inserts can be JDBC-batched.
+    // MySQL has no sequences; Hibernate emulates "task_seq" with a single-row table.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     @Column(name = "task_id")
     private Integer taskId;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: task reads never serialize the routine, and routine ids resolve from the proxy.
+    // Queries that need the routine say so with JOIN FETCH.
+    @ManyToOne(fetch = FetchType.LAZY)
     @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     @JoinColumn(name = "routine_id", nullable = false)
@@ -57,7 +70,10 @@ public class Task {
 
     /**
      * Persistent ordering of tasks within a routine.
-     * Lower numbers appear first.
+     * Lower numbers appear first (ties broken by taskId).
+     *
+     * Sparse rank: values are spaced TaskPositionAllocator.POSITION_GAP apart,
+     * so a task can be moved between two others by taking the midpoint.
      */
     @Column(name = "position")
     private Integer position;
@@ -65,4 +81,12 @@ public class Task {
     @Column(name = "created_at", columnDefinition = "TIMESTAMP(0)")
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    /**
+     * Owner's sync version at the last change to this task (see SyncVersionTracker).
+     * Null for tasks not changed since change tracking was introduced.
+     */
+    @JsonIgnore
+    @Column(name = "sync_version")
+    private Long syncVersion;
 }
@@ -0,0 +1,60 @@
+package com.example.rootine_api.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * A reusable routine blueprint.
+ *
+ * configJson holds the routine in the same shape the generator returns
+ * ({ "name", "detailLevel", "description", "tasks": [...] }); other keys (e.g. notification
+ * preferences) are allowed alongside. Templates with tasks are indexed by TemplateRoutineGenerator.
+ */
+@Entity
+@Table(name = "template")
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Template {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "template_id")
+    private Integer templateId;
+
+    @Column(name = "title", nullable = false, length = 150)
+    private String title;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "config_json")
+    private JsonNode configJson;
+
+    @Column(name = "created_at")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Templates outlive their authors (ON DELETE SET NULL in the original schema).
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JsonIgnore
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    @Column(name = "is_system")
+    private Boolean isSystem = false;
+}
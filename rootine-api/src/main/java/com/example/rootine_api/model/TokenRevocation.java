@@ -0,0 +1,34 @@
+package com.example.rootine_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Durable revocation cut-off of a user's tokens (see TokenRevocationService).
+ * Keyed by the user id without a foreign key, so it outlives a deleted account.
+ */
+@Entity
+@Table(
+    name = "token_revocation",
+    indexes = {
+        // Startup load and refresh: cut-offs still within the token lifetime
+        @Index(name = "idx_token_revocation_revoked_before", columnList = "revoked_before"),
+    }
+)
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevocation {
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    // Epoch seconds: JWT "iat" has second precision
+    @Column(name = "revoked_before", nullable = false)
+    private Long revokedBefore;
+}
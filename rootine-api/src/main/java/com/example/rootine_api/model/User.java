@@ -13,7 +13,13 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Entity
-@Table(name = "user")
+@Table(
+    name = "user",
+    indexes = {
+        // Keyset pagination seek for the user listing: (createdAt, userId)
+        @Index(name = "idx_user_created", columnList = "created_at, user_id"),
+    }
+)
 @Setter
 @Getter
 @NoArgsConstructor
@@ -51,6 +57,14 @@ public class User implements UserDetails {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
+    /**
+     * Latest change version handed out for this user's routines and tasks (SyncVersionTracker).
+     * Incremented per committed change, so clients can ask for everything after the version they hold.
+     */
+    @JsonIgnore
+    @Column(name = "sync_version")
+    private Long syncVersion;
+
     public User(String email, String password, String name) {
         this.email = email;
         this.password = password;
@@ -0,0 +1,89 @@
+package com.example.rootine_api.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque continuation token for keyset pagination.
+ *
+ * A cursor holds the sort key of the last row on a page, e.g. (createdAt, routineId)
+ * or (position, taskId). The next page starts strictly after it, so the database seeks
+ * straight to it through the index instead of skipping OFFSET rows.
+ *
+ * A null sort key (a legacy row) is kept as an empty value and read back with the nullable*
+ * accessors. The queries treat it as sorting before every value, which is where MySQL and H2
+ * put NULLs in ascending order.
+ *
+ * The encoding (URL-safe base64 of the key values) is not part of the API contract;
+ * clients only pass the token back unchanged.
+ */
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String[] keys;
+
+    private PageCursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        String raw = Arrays.stream(keys)
+            .map(key -> key == null ? "" : key.toString())
+            .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by encode with the given number of keys,
+     * or returns null for the first page (no token).
+     */
+    public static PageCursor decode(String token, int keyCount) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String[] keys;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            keys = raw.split("\\" + SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        if (keys.length != keyCount) {
+            throw invalid();
+        }
+        return new PageCursor(keys);
+    }
+
+    public Integer intKey(int index) {
+        try {
+            return Integer.valueOf(keys[index]);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    public Integer nullableIntKey(int index) {
+        return keys[index].isEmpty() ? null : intKey(index);
+    }
+
+    public LocalDateTime nullableTimestampKey(int index) {
+        return keys[index].isEmpty() ? null : timestampKey(index);
+    }
+
+    public LocalDateTime timestampKey(int index) {
+        try {
+            return LocalDateTime.parse(keys[index]);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static IllegalArgumentException invalid() {
+        return new IllegalArgumentException("Invalid page cursor");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rootine_api.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Page-size limits for listing endpoints (rootine.pagination.* properties).
+ */
+@Component
+public class PageSize {
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public PageSize(
+        @Value("${rootine.pagination.default-size:50}") int defaultSize,
+        @Value("${rootine.pagination.max-size:200}") int maxSize
+    ) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * The requested limit capped at max-size, or default-size when none was requested.
+     */
+    public int resolve(Integer requested) {
+        if (requested == null) {
+            return defaultSize;
+        }
+        if (requested < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(requested, maxSize);
+    }
+}
@@ -1,24 +1,265 @@
 package com.example.rootine_api.repository;
 
+import com.example.rootine_api.dto.RoutineActiveFlag;
 import com.example.rootine_api.model.Routine;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface RoutineRepo extends JpaRepository<Routine, Integer> {
+public interface RoutineRepo extends JpaRepository<Routine, Integer>, RoutineRepoCustom {
+    // ─── Read fetch plans ────────────────────────────────────────────────────────
+    // Routine responses include their tasks, so reads that feed them load tasks in
+    // the same statement. Plain findById stays lazy for write paths.
+
+    @EntityGraph(Routine.WITH_TASKS)
+    Optional<Routine> findWithTasksByRoutineId(Integer routineId);
+
+    // Second step of a paginated listing: the page's routines with their tasks in one query.
+    @EntityGraph(Routine.WITH_TASKS)
+    List<Routine> findWithTasksByRoutineIdIn(Collection<Integer> routineIds);
+
+    // ─── Keyset pagination ───────────────────────────────────────────────────────
+    // Pages are ordered by (createdAt, routineId) and start strictly after the cursor row,
+    // so every page is an index seek regardless of depth. Only ids are selected here:
+    // a collection fetch combined with a row limit would be paginated in memory.
+    // Rows without createdAt sort first and are paged by id (see PageCursor).
+
+    @Query(
+        """
+        SELECT r.routineId FROM Routine r
+        ORDER BY r.createdAt ASC, r.routineId ASC
+        """
+    )
+    List<Integer> findPageIds(Limit limit);
+
+    @Query(
+        """
+        SELECT r.routineId FROM Routine r
+        WHERE r.createdAt > :createdAt
+           OR (r.createdAt = :createdAt AND r.routineId > :routineId)
+           OR (:createdAt IS NULL AND (r.createdAt IS NOT NULL OR r.routineId > :routineId))
+        ORDER BY r.createdAt ASC, r.routineId ASC
+        """
+    )
+    List<Integer> findPageIdsAfter(
+        LocalDateTime createdAt,
+        Integer routineId,
+        Limit limit
+    );
+
+    @Query(
+        """
+        SELECT r.routineId FROM Routine r
+        WHERE r.user.userId = :userId
+        ORDER BY r.createdAt ASC, r.routineId ASC
+        """
+    )
+    List<Integer> findPageIdsByUserId(Integer userId, Limit limit);
+
+    @Query(
+        """
+        SELECT r.routineId FROM Routine r
+        WHERE r.user.userId = :userId
+          AND (r.createdAt > :createdAt
+               OR (r.createdAt = :createdAt AND r.routineId > :routineId)
+               OR (:createdAt IS NULL AND (r.createdAt IS NOT NULL OR r.routineId > :routineId)))
+        ORDER BY r.createdAt ASC, r.routineId ASC
+        """
+    )
+    List<Integer> findPageIdsByUserIdAfter(
+        Integer userId,
+        LocalDateTime createdAt,
+        Integer routineId,
+        Limit limit
+    );
+
+    // ─── Single active routine ───────────────────────────────────────────────────
+    // uk_routine_active_user allows one active routine per user, so the current one is
+    // always switched off before another is switched on, in the same transaction.
+
+    /**
+     * Switches off the user's active routines other than keepRoutineId (null for none) and
+     * returns their ids, so only the routines that actually flipped are stamped for sync.
+     */
+    default List<Integer> deactivateOthersForUser(Integer userId, Integer keepRoutineId) {
+        List<Integer> deactivated = lockActiveFlagsForUser(userId).stream()
+            .filter(flag -> Boolean.TRUE.equals(flag.isActive()))
+            .map(RoutineActiveFlag::routineId)
+            .filter(routineId -> !routineId.equals(keepRoutineId))
+            .toList();
+        if (!deactivated.isEmpty()) {
+            deactivateByIds(deactivated);
+        }
+        return deactivated;
+    }
+
+    // Locks every routine of the user, not only the active one: the row locks queue up
+    // concurrent activations for the same user, always in the same order, and the flags
+    // read behind them are current.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        """
+        SELECT new com.example.rootine_api.dto.RoutineActiveFlag(r.routineId, r.isActive)
+        FROM Routine r
+        WHERE r.user.userId = :userId
+        ORDER BY r.routineId
+        """
+    )
+    List<RoutineActiveFlag> lockActiveFlagsForUser(Integer userId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "UPDATE Routine r SET r.isActive = false WHERE r.routineId IN :routineIds"
+    )
+    int deactivateByIds(Collection<Integer> routineIds);
+
+    // Guarded by the owner: 0 when the routine does not exist or belongs to someone else.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+        """
+        UPDATE Routine r
+        SET r.isActive = true
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
+        """
+    )
+    int activateByIdAndOwner(Integer routineId, Integer userId);
+
+    @Query(
+        "SELECT r.user.userId FROM Routine r WHERE r.routineId = :routineId"
+    )
+    Optional<Integer> findOwnerId(Integer routineId);
+
+    // The user's only active routine (uk_routine_active_user) with its tasks, for the timeline.
+    @EntityGraph(Routine.WITH_TASKS)
+    Optional<Routine> findWithTasksByUserUserIdAndIsActiveTrue(Integer userId);
+
+    // ─── Delta sync / content versions ───────────────────────────────────────────
+    // Stamps take the owner's freshly reserved sync version (SyncVersionTracker) and bump
+    // the routine's content version (ETags) in the same statement; reads seek idx_routine_user_sync.
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        """
+        UPDATE Routine r
+        SET r.syncVersion = :version,
+            r.version = COALESCE(r.version, 0) + 1
+        WHERE r.routineId IN :routineIds
+        """
+    )
+    int stampSyncVersion(Collection<Integer> routineIds, long version);
+
+    // Takes the routines' row locks before the owner's counter row is incremented for their stamp,
+    // so the pair is always locked in the same order (see SyncVersionTracker).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "SELECT r.routineId FROM Routine r WHERE r.routineId IN :routineIds ORDER BY r.routineId"
+    )
+    List<Integer> lockByIds(Collection<Integer> routineIds);
+
+    // A task changed: the routine's content did, its own row did not.
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "UPDATE Routine r SET r.version = COALESCE(r.version, 0) + 1 WHERE r.routineId = :routineId"
+    )
+    int bumpVersion(Integer routineId);
+
+    // Primary-key lookups for conditional GETs: no entity, no tasks.
+
+    @Query(
+        "SELECT COALESCE(r.version, 0) FROM Routine r WHERE r.routineId = :routineId"
+    )
+    Optional<Long> findVersion(Integer routineId);
+
+    @Query(
+        """
+        SELECT COALESCE(r.version, 0) FROM Routine r
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
+        """
+    )
+    Optional<Long> findVersionByOwner(Integer routineId, Integer userId);
+
     List<Routine> findByUserUserId(Integer userId);
 
-    @Modifying
+    List<Routine> findByUserUserIdAndSyncVersionGreaterThan(Integer userId, Long version);
+
+    // ─── Task position allocation ─────────────────────────────────────────────────
+    // The UPDATE row-locks the routine until commit, so concurrent appends serialize
+    // on the counter and each transaction reads back its own distinct value.
+
+    @Modifying(flushAutomatically = true)
     @Query(
         """
         UPDATE Routine r
-        SET r.isActive = false
-        WHERE r.user.userId = :userId
-          AND r.isActive = true
+        SET r.nextTaskPosition = COALESCE(
+                r.nextTaskPosition,
+                (SELECT COALESCE(MAX(t.position) + :gap, 0) FROM Task t WHERE t.routine.routineId = r.routineId)
+            ) + :gap
+        WHERE r.routineId = :routineId
+        """
+    )
+    int reserveTaskPosition(Integer routineId, int gap);
+
+    // Moves the counter forward (never back) after positions were rewritten in bulk.
+    @Modifying(flushAutomatically = true)
+    @Query(
+        """
+        UPDATE Routine r
+        SET r.nextTaskPosition = :minNextPosition
+        WHERE r.routineId = :routineId
+          AND (r.nextTaskPosition IS NULL OR r.nextTaskPosition < :minNextPosition)
+        """
+    )
+    int advanceNextTaskPosition(Integer routineId, int minNextPosition);
+
+    @Query(
+        "SELECT r.nextTaskPosition FROM Routine r WHERE r.routineId = :routineId"
+    )
+    Integer findNextTaskPosition(Integer routineId);
+
+    // ─── Owner-scoped (tenant) queries ───────────────────────────────────────────
+
+    @EntityGraph(Routine.WITH_TASKS)
+    Optional<Routine> findByRoutineIdAndUserUserId(
+        Integer routineId,
+        Integer userId
+    );
+
+    boolean existsByRoutineIdAndUserUserId(Integer routineId, Integer userId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        """
+        UPDATE Routine r
+        SET r.name = COALESCE(:#{#updates.name}, r.name),
+            r.detailLevel = COALESCE(:#{#updates.detailLevel}, r.detailLevel),
+            r.isActive = COALESCE(:#{#updates.isActive}, r.isActive),
+            r.createdAt = COALESCE(:#{#updates.createdAt}, r.createdAt)
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
+        """
+    )
+    int updateByIdAndOwner(Integer routineId, Integer userId, Routine updates);
+
+    // Tasks are removed by the task.routine_id ON DELETE CASCADE foreign key.
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        """
+        DELETE FROM Routine r
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
         """
     )
-    int deactivateAllActiveForUser(Integer userId);
+    int deleteByIdAndOwner(Integer routineId, Integer userId);
 }
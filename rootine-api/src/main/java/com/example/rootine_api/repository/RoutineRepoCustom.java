@@ -0,0 +1,17 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.dto.RoutineExportRow;
+import java.util.stream.Stream;
+
+/**
+ * Routine queries whose statement settings come from configuration (see RoutineRepoCustomImpl).
+ */
+public interface RoutineRepoCustom {
+    // ─── Export ──────────────────────────────────────────────────────────────────
+    // Forward-only streams of flat rows (one per task, routines grouped together) so an
+    // export never materializes a user's data. Must be consumed inside a transaction.
+
+    Stream<RoutineExportRow> streamExportRowsByUserId(Integer userId);
+
+    Stream<RoutineExportRow> streamAllExportRows();
+}
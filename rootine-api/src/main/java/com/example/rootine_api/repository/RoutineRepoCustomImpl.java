@@ -0,0 +1,51 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.dto.RoutineExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+
+public class RoutineRepoCustomImpl implements RoutineRepoCustom {
+
+    private static final String EXPORT_ROW = """
+        SELECT new com.example.rootine_api.dto.RoutineExportRow(
+            r.routineId, r.user.userId, r.name, r.description, r.detailLevel, r.isActive, r.createdAt,
+            t.taskId, t.title, t.description, t.taskType, t.startTime, t.duration, t.priority,
+            t.isCompleted, t.position, t.createdAt
+        )
+        FROM Routine r
+        LEFT JOIN r.tasks t
+        """;
+
+    private static final String EXPORT_ORDER = """
+        ORDER BY r.routineId ASC, t.position ASC, t.taskId ASC
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Driver-specific: Integer.MIN_VALUE is Connector/J's row-by-row streaming mode (see application.properties)
+    @Value("${rootine.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public Stream<RoutineExportRow> streamExportRowsByUserId(Integer userId) {
+        return stream(
+            entityManager
+                .createQuery(EXPORT_ROW + "WHERE r.user.userId = :userId\n" + EXPORT_ORDER, RoutineExportRow.class)
+                .setParameter("userId", userId)
+        );
+    }
+
+    @Override
+    public Stream<RoutineExportRow> streamAllExportRows() {
+        return stream(entityManager.createQuery(EXPORT_ROW + EXPORT_ORDER, RoutineExportRow.class));
+    }
+
+    private Stream<RoutineExportRow> stream(TypedQuery<RoutineExportRow> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+}
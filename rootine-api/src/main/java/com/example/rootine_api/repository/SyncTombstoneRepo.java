@@ -0,0 +1,11 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.model.SyncTombstone;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SyncTombstoneRepo extends JpaRepository<SyncTombstone, Long> {
+    List<SyncTombstone> findByUserUserIdAndSyncVersionGreaterThan(Integer userId, Long version);
+}
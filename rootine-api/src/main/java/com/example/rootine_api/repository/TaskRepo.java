@@ -1,13 +1,237 @@
 package com.example.rootine_api.repository;
 
 import com.example.rootine_api.model.Task;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TaskRepo extends JpaRepository<Task, Integer> {
+public interface TaskRepo
+    extends JpaRepository<Task, Integer>, TaskRepoCustom {
     List<Task> findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(
         Integer routineId
     );
+
+    // ─── Keyset pagination ───────────────────────────────────────────────────────
+    // Tasks within a routine page by (position, taskId); the global listing by taskId.
+    // Each page starts strictly after the cursor row, so depth does not affect cost.
+    // A legacy task without a position sorts first; a cursor on one carries a null position,
+    // and only then does the IS NULL branch match (with a value it folds away).
+
+    List<Task> findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(
+        Integer routineId,
+        Limit limit
+    );
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        WHERE t.routine.routineId = :routineId
+          AND (t.position > :position
+               OR (t.position = :position AND t.taskId > :taskId)
+               OR (:position IS NULL AND (t.position IS NOT NULL OR t.taskId > :taskId)))
+        ORDER BY t.position ASC, t.taskId ASC
+        """
+    )
+    List<Task> findPageByRoutineIdAfter(
+        Integer routineId,
+        Integer position,
+        Integer taskId,
+        Limit limit
+    );
+
+    List<Task> findByOrderByTaskIdAsc(Limit limit);
+
+    List<Task> findByTaskIdGreaterThanOrderByTaskIdAsc(
+        Integer taskId,
+        Limit limit
+    );
+
+    @Query(
+        """
+        SELECT t.taskId FROM Task t
+        WHERE t.routine.routineId = :routineId
+        ORDER BY t.position ASC, t.taskId ASC
+        """
+    )
+    List<Integer> findTaskIdsByRoutineId(Integer routineId);
+
+    // ─── Sparse rank neighbours ──────────────────────────────────────────────────
+    // Position of the task immediately before/after (position, taskId), ignoring the task being moved.
+
+    @Query(
+        """
+        SELECT t.position FROM Task t
+        WHERE t.routine.routineId = :routineId
+          AND t.taskId <> :excludedTaskId
+          AND (t.position < :position OR (t.position = :position AND t.taskId < :taskId))
+        ORDER BY t.position DESC, t.taskId DESC
+        LIMIT 1
+        """
+    )
+    Optional<Integer> findPositionBefore(
+        Integer routineId,
+        Integer position,
+        Integer taskId,
+        Integer excludedTaskId
+    );
+
+    @Query(
+        """
+        SELECT t.position FROM Task t
+        WHERE t.routine.routineId = :routineId
+          AND t.taskId <> :excludedTaskId
+          AND (t.position > :position OR (t.position = :position AND t.taskId > :taskId))
+        ORDER BY t.position ASC, t.taskId ASC
+        LIMIT 1
+        """
+    )
+    Optional<Integer> findPositionAfter(
+        Integer routineId,
+        Integer position,
+        Integer taskId,
+        Integer excludedTaskId
+    );
+
+    // ─── Delta sync ──────────────────────────────────────────────────────────────
+    // Stamps take the owner's freshly reserved sync version (SyncVersionTracker).
+    // Reads walk the user's routines, then idx_task_routine_sync within each.
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "UPDATE Task t SET t.syncVersion = :version WHERE t.taskId = :taskId"
+    )
+    int stampSyncVersion(Integer taskId, long version);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "UPDATE Task t SET t.syncVersion = :version WHERE t.routine.routineId IN :routineIds"
+    )
+    int stampSyncVersionForRoutines(Collection<Integer> routineIds, long version);
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        JOIN t.routine r
+        WHERE r.user.userId = :userId
+        """
+    )
+    List<Task> findByOwner(Integer userId);
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        JOIN t.routine r
+        WHERE r.user.userId = :userId
+          AND t.syncVersion > :version
+        """
+    )
+    List<Task> findByOwnerChangedAfter(Integer userId, Long version);
+
+    // ─── Owner-scoped (tenant) queries ───────────────────────────────────────────
+    // The owner predicate is part of the statement, so a task owned by someone else
+    // is indistinguishable from a missing one and no separate ownership check is needed.
+    // The routine is only joined for the owner predicate; task responses never include it.
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        JOIN t.routine r
+        WHERE t.taskId = :taskId
+          AND r.user.userId = :userId
+        """
+    )
+    Optional<Task> findByIdAndOwner(Integer taskId, Integer userId);
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        JOIN t.routine r
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
+        ORDER BY t.position ASC, t.taskId ASC
+        """
+    )
+    List<Task> findByRoutineIdAndOwner(
+        Integer routineId,
+        Integer userId,
+        Limit limit
+    );
+
+    @Query(
+        """
+        SELECT t FROM Task t
+        JOIN t.routine r
+        WHERE r.routineId = :routineId
+          AND r.user.userId = :userId
+          AND (t.position > :position
+               OR (t.position = :position AND t.taskId > :taskId)
+               OR (:position IS NULL AND (t.position IS NOT NULL OR t.taskId > :taskId)))
+        ORDER BY t.position ASC, t.taskId ASC
+        """
+    )
+    List<Task> findPageByRoutineIdAndOwnerAfter(
+        Integer routineId,
+        Integer userId,
+        Integer position,
+        Integer taskId,
+        Limit limit
+    );
+
+    @Query(
+        """
+        SELECT t.taskId FROM Task t
+        WHERE t.routine.routineId = :routineId
+          AND t.routine.user.userId = :userId
+        """
+    )
+    List<Integer> findTaskIdsByRoutineIdAndOwner(
+        Integer routineId,
+        Integer userId
+    );
+
+    @Query(
+        """
+        SELECT t.routine.routineId FROM Task t
+        WHERE t.taskId = :taskId
+          AND t.routine.user.userId = :userId
+        """
+    )
+    Optional<Integer> findRoutineIdByIdAndOwner(Integer taskId, Integer userId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        """
+        UPDATE Task t
+        SET t.title = COALESCE(:#{#updates.title}, t.title),
+            t.taskType = COALESCE(:#{#updates.taskType}, t.taskType),
+            t.startTime = COALESCE(:#{#updates.startTime}, t.startTime),
+            t.duration = COALESCE(:#{#updates.duration}, t.duration),
+            t.priority = COALESCE(:#{#updates.priority}, t.priority),
+            t.isCompleted = COALESCE(:#{#updates.isCompleted}, t.isCompleted),
+            t.position = COALESCE(:#{#updates.position}, t.position)
+        WHERE t.taskId = :taskId
+          AND t.routine.routineId IN (
+              SELECT r.routineId FROM Routine r WHERE r.user.userId = :userId
+          )
+        """
+    )
+    int updateByIdAndOwner(Integer taskId, Integer userId, Task updates);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(
+        """
+        DELETE FROM Task t
+        WHERE t.taskId = :taskId
+          AND t.routine.routineId IN (
+              SELECT r.routineId FROM Routine r WHERE r.user.userId = :userId
+          )
+        """
+    )
+    int deleteByIdAndOwner(Integer taskId, Integer userId);
 }
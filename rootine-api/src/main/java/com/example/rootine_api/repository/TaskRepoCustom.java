@@ -0,0 +1,16 @@
+package com.example.rootine_api.repository;
+
+import java.util.List;
+
+/**
+ * Task queries that need dynamically built statements (see TaskRepoCustomImpl).
+ */
+public interface TaskRepoCustom {
+    /**
+     * Rewrites the positions of the given tasks in one set-based UPDATE ... CASE statement.
+     * The first id gets position 0, the next gets {@code gap}, then {@code 2 * gap}, etc.
+     *
+     * @return number of rows updated
+     */
+    int updatePositions(Integer routineId, List<Integer> orderedTaskIds, int gap);
+}
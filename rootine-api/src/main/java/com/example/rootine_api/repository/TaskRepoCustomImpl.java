@@ -0,0 +1,50 @@
+package com.example.rootine_api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.List;
+
+public class TaskRepoCustomImpl implements TaskRepoCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updatePositions(
+        Integer routineId,
+        List<Integer> orderedTaskIds,
+        int gap
+    ) {
+        if (orderedTaskIds.isEmpty()) {
+            return 0;
+        }
+
+        // Positions are computed ints, so they are inlined; only task ids are bound.
+        StringBuilder jpql = new StringBuilder(
+            "UPDATE Task t SET t.position = CASE t.taskId"
+        );
+        for (int i = 0; i < orderedTaskIds.size(); i++) {
+            jpql
+                .append(" WHEN :id")
+                .append(i)
+                .append(" THEN ")
+                .append(i * gap);
+        }
+        jpql.append(
+            " ELSE t.position END WHERE t.routine.routineId = :routineId AND t.taskId IN :taskIds"
+        );
+
+        Query query = entityManager.createQuery(jpql.toString());
+        for (int i = 0; i < orderedTaskIds.size(); i++) {
+            query.setParameter("id" + i, orderedTaskIds.get(i));
+        }
+        query.setParameter("routineId", routineId);
+        query.setParameter("taskIds", orderedTaskIds);
+
+        int updated = query.executeUpdate();
+        // Same contract as @Modifying(clearAutomatically = true): loaded tasks are now stale.
+        entityManager.clear();
+        return updated;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.model.Template;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TemplateRepo extends JpaRepository<Template, Integer> {
+}
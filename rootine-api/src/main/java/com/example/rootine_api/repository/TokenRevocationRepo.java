@@ -0,0 +1,29 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.model.TokenRevocation;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface TokenRevocationRepo extends JpaRepository<TokenRevocation, Integer> {
+
+    List<TokenRevocation> findByRevokedBeforeGreaterThan(Long revokedBefore);
+
+    // Only ever moves a cut-off forward, so concurrent revocations keep the latest.
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE TokenRevocation r SET r.revokedBefore = :revokedBefore
+            WHERE r.userId = :userId AND r.revokedBefore < :revokedBefore
+            """)
+    int raiseRevokedBefore(Integer userId, Long revokedBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TokenRevocation r WHERE r.revokedBefore <= :revokedBefore")
+    int deleteByRevokedBeforeAtMost(Long revokedBefore);
+}
@@ -1,9 +1,14 @@
 package com.example.rootine_api.repository;
 
 import com.example.rootine_api.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +16,27 @@ import java.util.UUID;
 public interface UserRepo extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
     Optional<User> findByUuid(UUID uuid);
+
+    // Keyset pagination by (createdAt, userId): each page starts strictly after the cursor row.
+    List<User> findByOrderByCreatedAtAscUserIdAsc(Limit limit);
+
+    @Query("""
+            SELECT u FROM User u
+            WHERE u.createdAt > :createdAt
+               OR (u.createdAt = :createdAt AND u.userId > :userId)
+               OR (:createdAt IS NULL AND (u.createdAt IS NOT NULL OR u.userId > :userId))
+            ORDER BY u.createdAt ASC, u.userId ASC
+            """)
+    List<User> findPageAfter(LocalDateTime createdAt, Integer userId, Limit limit);
+
+    // ─── Delta sync version counter ──────────────────────────────────────────────
+    // The UPDATE row-locks the user until commit, so a user's changes commit in version order
+    // and a reader never sees version N+1 committed before N.
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.syncVersion = COALESCE(u.syncVersion, 0) + 1 WHERE u.userId = :userId")
+    int incrementSyncVersion(Integer userId);
+
+    @Query("SELECT COALESCE(u.syncVersion, 0) FROM User u WHERE u.userId = :userId")
+    long findSyncVersion(Integer userId);
 }
@@ -3,6 +3,7 @@ package com.example.rootine_api.security;
 import com.example.rootine_api.model.User;
 import com.example.rootine_api.repository.UserRepo;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -22,18 +23,39 @@ public class AuthService {
     }
 
     /**
-     * Checks if the current user is the owner of the resource or has admin privileges.
-     * Throws AccessDeniedException if unauthorized.
+     * Resolves the current user's id from the JWT principal without touching the user table.
+     * Falls back to a lookup only for sessions authenticated with a legacy token.
      */
-    public void verifyOwnershipOrAdmin(Integer ownerId) {
-        User currentUser = getCurrentUser();
+    public Integer getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            return principal.userId();
+        }
+        return getCurrentUser().getUserId();
+    }
+
+    /**
+     * Returns an uninitialized reference to the current user, suitable for setting owner associations.
+     */
+    public User getCurrentUserReference() {
+        return userRepo.getReferenceById(getCurrentUserId());
+    }
 
-        boolean isOwner = currentUser.getUserId().equals(ownerId);
-        boolean isAdmin = currentUser.getAuthorities()
+    public boolean isCurrentUserAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities()
                 .stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
+    }
+
+    /**
+     * Checks if the current user is the owner of the resource or has admin privileges.
+     * Throws AccessDeniedException if unauthorized.
+     */
+    public void verifyOwnershipOrAdmin(Integer ownerId) {
+        boolean isOwner = getCurrentUserId().equals(ownerId);
 
-        if (!isOwner && !isAdmin) {
+        if (!isOwner && !isCurrentUserAdmin()) {
             throw new AccessDeniedException("You are not authorized to perform this action.");
         }
     }
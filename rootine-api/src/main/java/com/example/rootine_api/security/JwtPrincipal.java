@@ -0,0 +1,26 @@
+package com.example.rootine_api.security;
+
+import java.util.Collection;
+import java.util.UUID;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Lightweight principal built straight from verified JWT claims.
+ *
+ * Used on the authenticated request path instead of loading the User entity,
+ * so resolving "who is calling" costs no database query.
+ * getName() returns the email so Principal#getName keeps its existing meaning.
+ */
+public record JwtPrincipal(
+    Integer userId,
+    UUID uuid,
+    String email,
+    Collection<? extends GrantedAuthority> authorities
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.rootine_api.security;
+
+import com.example.rootine_api.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles the expensive endpoints with per-client token buckets, answering 429 with Retry-After.
+ *
+ * - ai (POST /openai/response, /openai/response/stream, /routine/generate): model calls cost money and seconds
+ * - login (POST /auth/login, /auth/register): every attempt costs a BCrypt hash
+ *
+ * Clients are keyed by user id when the request is authenticated (runs after JwtAuthenticationFilter),
+ * by remote address otherwise. Other requests only pay for a method check and a set lookup.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Rule> rules;
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${rootine.rate-limit.enabled:true}") boolean enabled,
+            @Value("${rootine.rate-limit.ai.capacity:10}") int aiCapacity,
+            @Value("${rootine.rate-limit.ai.period:1m}") Duration aiPeriod,
+            @Value("${rootine.rate-limit.login.capacity:5}") int loginCapacity,
+            @Value("${rootine.rate-limit.login.period:1m}") Duration loginPeriod
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.rules = List.of(
+                new Rule("ai", Set.of("/openai/response", "/openai/response/stream", "/routine/generate"),
+                        new RateLimiter(aiCapacity, aiPeriod)),
+                new Rule("login", Set.of("/auth/login", "/auth/register"),
+                        new RateLimiter(loginCapacity, loginPeriod))
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NotNull HttpServletRequest request) {
+        return !enabled || ruleFor(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request,
+                                    @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain)
+            throws ServletException, IOException {
+        Rule rule = ruleFor(request);
+        long waitNanos = rule.limiter().tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        reject(response, rule, waitNanos);
+    }
+
+    @Scheduled(fixedDelayString = "${rootine.rate-limit.evict-interval:1m}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Rule rule : rules) {
+            rule.limiter().evictIdle(now);
+        }
+    }
+
+    private Rule ruleFor(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (rule.paths().contains(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null) {
+            if (authentication.getPrincipal() instanceof JwtPrincipal principal) {
+                return "user:" + principal.userId();
+            }
+            if (authentication.getPrincipal() instanceof User user && user.getUserId() != null) {
+                return "user:" + user.getUserId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Rule rule, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        // Same body shape as GlobalExceptionHandler.
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase());
+        body.put("message", "Too many " + rule.name() + " requests, retry in " + retryAfterSeconds + "s");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record Rule(String name, Set<String> paths, RateLimiter limiter) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.rootine_api.security;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket per key, in its GCRA form: each bucket is a single AtomicLong holding the
+ * "theoretical arrival time" of the next request, so taking a token is one read and one CAS.
+ *
+ * capacity requests may arrive at once; after that one token comes back every refillPeriod / capacity.
+ * Buckets live in a ConcurrentHashMap (lock-striped bins, lock-free reads). A bucket that has fully
+ * refilled behaves exactly like a missing one, so evictIdle can drop it without changing any decision.
+ */
+public class RateLimiter {
+
+    private final long emissionNanos;
+    private final long burstNanos;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(int capacity, Duration refillPeriod) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.emissionNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstNanos = emissionNanos * capacity;
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 when granted, otherwise the nanoseconds until one is available.
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, nowNanos) + emissionNanos;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that are full again. A request racing with the eviction may be counted
+     * on the dropped bucket, which at worst grants one extra token.
+     */
+    public void evictIdle(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.get() <= nowNanos);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
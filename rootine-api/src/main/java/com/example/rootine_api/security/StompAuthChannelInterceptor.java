@@ -0,0 +1,96 @@
+package com.example.rootine_api.security;
+
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.service.JwtService;
+import com.example.rootine_api.service.RoutineChangeNotifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import java.security.Principal;
+import java.util.Collection;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions with the same JWT as the REST API.
+ *
+ * The browser WebSocket API cannot set headers on the handshake, so the token travels in the
+ * CONNECT frame instead ("Authorization: Bearer ..." native header). The session principal is
+ * named by userId, which is what RoutineChangeNotifier addresses.
+ *
+ * The channel is push-only: a session may subscribe to its own change queue and nothing else,
+ * and SEND frames are refused.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    public static final String CHANGES_SUBSCRIPTION = "/user" + RoutineChangeNotifier.DESTINATION;
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    public StompAuthChannelInterceptor(JwtService jwtService, UserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public Message<?> preSend(@NotNull Message<?> message, @NotNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message; // heartbeat
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            case SUBSCRIBE -> {
+                if (accessor.getUser() == null || !CHANGES_SUBSCRIPTION.equals(accessor.getDestination())) {
+                    throw new MessageDeliveryException("Only " + CHANGES_SUBSCRIPTION + " can be subscribed to");
+                }
+            }
+            case SEND -> throw new MessageDeliveryException("This channel does not accept messages");
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private Principal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token");
+        }
+
+        try {
+            Claims claims = jwtService.parseClaims(authHeader.substring(7));
+            JwtPrincipal principal = jwtService.extractPrincipal(claims);
+            if (principal != null) {
+                if (jwtService.isTokenValid(claims)) {
+                    return sessionPrincipal(principal.userId(), principal.authorities());
+                }
+            } else if (claims.getSubject() != null) {
+                // Older tokens without principal claims: same fallback as JwtAuthenticationFilter.
+                UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                if (userDetails instanceof User user && jwtService.isTokenValid(claims, userDetails)) {
+                    return sessionPrincipal(user.getUserId(), userDetails.getAuthorities());
+                }
+            }
+        } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+            // fall through: treated like any other invalid token
+        }
+        throw new MessageDeliveryException("Invalid or expired token");
+    }
+
+    private static Principal sessionPrincipal(Integer userId, Collection<? extends GrantedAuthority> authorities) {
+        return new UsernamePasswordAuthenticationToken(userId.toString(), null, authorities);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.rootine_api.security;
+
+import com.example.rootine_api.model.TokenRevocation;
+import com.example.rootine_api.repository.TokenRevocationRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Date;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Invalidation hook for stateless tokens.
+ *
+ * Stateless principals skip the user lookup, so a password change or account deletion
+ * would otherwise leave existing tokens usable until they expire. Revoking a user records
+ * a cut-off time; tokens issued at or before it are rejected. "iat" has second precision, so
+ * a token issued for the user in the cut-off second itself (a login right after a password
+ * change) is stamped with the following second instead (see issuedAt).
+ *
+ * Cut-offs are stored in token_revocation, so they survive restarts and reach every instance.
+ * Checks read an in-memory copy, loaded at startup and refreshed on a schedule, so the request
+ * path makes no query; another instance's revocation applies here from its next refresh.
+ * Entries only need to live as long as the longest token lifetime, after which every
+ * token they could reject has expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Duration MAX_TOKEN_LIFETIME = Duration.ofHours(24);
+
+    private final TokenRevocationRepo tokenRevocationRepo;
+
+    // userId -> revocation cut-off in epoch seconds (JWT "iat" has second precision)
+    private final Cache<Integer, Long> revokedBefore = Caffeine.newBuilder()
+        .expireAfterWrite(MAX_TOKEN_LIFETIME)
+        .build();
+
+    public TokenRevocationService(TokenRevocationRepo tokenRevocationRepo) {
+        this.tokenRevocationRepo = tokenRevocationRepo;
+    }
+
+    public void revokeAllForUser(Integer userId) {
+        if (userId == null) return;
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        // Stored first: a revocation that only reached memory would be lost on restart.
+        if (tokenRevocationRepo.raiseRevokedBefore(userId, nowSeconds) == 0
+                && !tokenRevocationRepo.existsById(userId)) {
+            try {
+                tokenRevocationRepo.save(new TokenRevocation(userId, nowSeconds));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance inserted the row first; keep the later cut-off.
+                tokenRevocationRepo.raiseRevokedBefore(userId, nowSeconds);
+            }
+        }
+        revokedBefore.asMap().merge(userId, nowSeconds, Math::max);
+    }
+
+    /**
+     * Loads the stored cut-offs that can still reject a token and drops the older rows.
+     */
+    @PostConstruct
+    @Scheduled(
+            fixedDelayString = "${rootine.security.revocation-refresh:30s}",
+            initialDelayString = "${rootine.security.revocation-refresh:30s}"
+    )
+    public void refresh() {
+        long oldestLive = System.currentTimeMillis() / 1000 - MAX_TOKEN_LIFETIME.toSeconds();
+        for (TokenRevocation revocation : tokenRevocationRepo.findByRevokedBeforeGreaterThan(oldestLive)) {
+            revokedBefore.asMap().merge(revocation.getUserId(), revocation.getRevokedBefore(), Math::max);
+        }
+        tokenRevocationRepo.deleteByRevokedBeforeAtMost(oldestLive);
+    }
+
+    /**
+     * "iat" for a new token of the user: now, or the second after the user's cut-off when that
+     * is not yet over, so the token is not rejected by a revocation that happened before it.
+     */
+    public Date issuedAt(Integer userId, long nowMillis) {
+        Long cutoff = userId == null ? null : revokedBefore.getIfPresent(userId);
+        if (cutoff == null || nowMillis / 1000 > cutoff) {
+            return new Date(nowMillis);
+        }
+        return new Date((cutoff + 1) * 1000);
+    }
+
+    public boolean isRevoked(Integer userId, Date issuedAt) {
+        Long cutoff = revokedBefore.getIfPresent(userId);
+        if (cutoff == null) return false;
+        // Tokens without "iat" cannot prove they were issued after the cut-off.
+        return issuedAt == null || issuedAt.getTime() / 1000 <= cutoff;
+    }
+}
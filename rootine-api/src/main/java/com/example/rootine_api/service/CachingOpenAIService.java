@@ -0,0 +1,305 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.exception.GenerationBusyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caches generated routines in front of OpenAIServiceImpl.
+ *
+ * Prompts are normalized (case, punctuation, whitespace) so near-identical requests share an
+ * entry, and the key also covers the model and the generation version (mode, instructions and
+ * schema, see OpenAIServiceImpl.generationVersion). Only responses
+ * that parse as a non-empty routine are cached; fallbacks and malformed output are not.
+ *
+ * Bounded by size (W-TinyLFU eviction) and TTL. Hit/miss/eviction counts are published as
+ * the "cache.*" meters tagged cache=openai.routine.
+ *
+ * generateRoutineAsync is the non-blocking entry point: upstream calls run on the bounded
+ * openAIExecutor (the AI bulkhead, so a burst of generations can't take servlet threads away
+ * from the CRUD endpoints), identical in-flight prompts share one upstream call, and every
+ * caller gets its own timeout.
+ *
+ * On an exact miss, SimilarRoutineIndex may supply the routine generated for a differently worded
+ * but near-identical earlier prompt; fresh OpenAI results are added to it.
+ *
+ * OpenAI calls go through OpenAICircuitBreaker. While it is open, when a call fails, or when a
+ * caller times out or finds no capacity, the answer comes from the local TemplateRoutineGenerator
+ * instead (never cached). In offline mode (rootine.generator.offline) OpenAI is not called at all.
+ */
+@Service
+@Primary
+public class CachingOpenAIService implements OpenAIService {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingOpenAIService.class);
+
+    static final String CACHE_NAME = "openai.routine";
+
+    private static final Pattern PUNCTUATION = Pattern.compile("\\p{P}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final OpenAIService delegate;
+    private final RoutineGenerator templateGenerator;
+    private final SimilarRoutineIndex similarRoutines;
+    private final OpenAICircuitBreaker circuitBreaker;
+    private final boolean offline;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, String> responses;
+    private final Executor executor;
+    private final Executor fallbackExecutor;
+    private final Duration timeout;
+    private final String generationVersion;
+
+    // Upstream calls currently running, by cache key; an entry lives until its call completes.
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingOpenAIService(
+            @Qualifier("openAIServiceImpl") OpenAIService delegate,
+            @Qualifier("templateRoutineGenerator") RoutineGenerator templateGenerator,
+            SimilarRoutineIndex similarRoutines,
+            OpenAICircuitBreaker circuitBreaker,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Qualifier("openAIExecutor") Executor executor,
+            @Value("${rootine.openai.cache.max-size:10000}") long maxSize,
+            @Value("${rootine.openai.cache.ttl:24h}") Duration ttl,
+            @Value("${rootine.openai.timeout:60s}") Duration timeout,
+            @Value("${rootine.generator.offline:false}") boolean offline,
+            @Value("${rootine.openai.structured-output:true}") boolean structuredOutput
+    ) {
+        this.delegate = delegate;
+        this.templateGenerator = templateGenerator;
+        this.similarRoutines = similarRoutines;
+        this.circuitBreaker = circuitBreaker;
+        this.offline = offline;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        // Fallbacks are quick template work, so when the pool is full they run on the thread completing the
+        // caller's future instead of failing the request that was meant to be rescued.
+        this.fallbackExecutor = task -> {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
+        this.timeout = timeout;
+        this.generationVersion = OpenAIServiceImpl.generationVersion(structuredOutput);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    @Override
+    public String generateRoutine(String prompt) {
+        String key = cacheKey(generationVersion, prompt);
+        String cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return load(key, prompt);
+    }
+
+    @Override
+    public CompletableFuture<String> generateRoutineAsync(String prompt) {
+        String key = cacheKey(generationVersion, prompt);
+        String cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(key, call);
+        if (running == null) {
+            running = call;
+            call.whenComplete((response, error) -> inFlight.remove(key, call));
+            try {
+                executor.execute(() -> {
+                    try {
+                        call.complete(load(key, prompt));
+                    } catch (Throwable e) {
+                        call.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                call.completeExceptionally(new GenerationBusyException("AI generation is at capacity, try again shortly"));
+            }
+        }
+
+        // Timing out only gives up on the caller's copy: the shared call keeps running and still fills the cache.
+        // The timeout fires on CompletableFuture's single delayer thread, which must not build the fallback.
+        return running.copy()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyAsync(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    if (cause instanceof TimeoutException || cause instanceof GenerationBusyException) {
+                        return fallback(prompt);
+                    }
+                    throw error instanceof CompletionException completion ? completion : new CompletionException(cause);
+                }, fallbackExecutor);
+    }
+
+    @Override
+    public String streamRoutine(String prompt, Consumer<String> onDelta) {
+        String key = cacheKey(generationVersion, prompt);
+        String cached = responses.getIfPresent(key);
+        if (cached != null) {
+            // Nothing to wait for: the whole routine goes out as a single fragment.
+            onDelta.accept(cached);
+            return cached;
+        }
+        String similar = findSimilar(key, prompt);
+        if (similar != null) {
+            onDelta.accept(similar);
+            return similar;
+        }
+        if (offline || !circuitBreaker.tryAcquire()) {
+            String response = fallback(prompt);
+            onDelta.accept(response);
+            return response;
+        }
+
+        AtomicBoolean emitted = new AtomicBoolean();
+        AtomicBoolean clientFailed = new AtomicBoolean();
+        long started = System.nanoTime();
+        String response;
+        try {
+            response = delegate.streamRoutine(prompt, delta -> {
+                emitted.set(true);
+                try {
+                    onDelta.accept(delta);
+                } catch (RuntimeException e) {
+                    clientFailed.set(true);
+                    throw e;
+                }
+            });
+        } catch (RuntimeException e) {
+            if (clientFailed.get()) {
+                // Our side went away; says nothing about OpenAI (a trial call stays undecided).
+                circuitBreaker.release();
+                throw e;
+            }
+            circuitBreaker.onFailure();
+            if (emitted.get()) {
+                throw e; // part of the answer is already out, can't switch sources now
+            }
+            log.warn("OpenAI streaming failed, answering from templates: {}", e.toString());
+            String fallbackResponse = fallback(prompt);
+            onDelta.accept(fallbackResponse);
+            return fallbackResponse;
+        }
+        circuitBreaker.onSuccess(System.nanoTime() - started);
+
+        remember(key, prompt, response);
+        return response;
+    }
+
+    private String load(String key, String prompt) {
+        String similar = findSimilar(key, prompt);
+        if (similar != null) {
+            return similar;
+        }
+        if (offline || !circuitBreaker.tryAcquire()) {
+            return fallback(prompt);
+        }
+
+        long started = System.nanoTime();
+        String response;
+        try {
+            response = delegate.generateRoutine(prompt);
+        } catch (RuntimeException e) {
+            circuitBreaker.onFailure();
+            log.warn("OpenAI generation failed, answering from templates: {}", e.toString());
+            return fallback(prompt);
+        }
+        circuitBreaker.onSuccess(System.nanoTime() - started);
+
+        remember(key, prompt, response);
+        return response;
+    }
+
+    private String findSimilar(String key, String prompt) {
+        String similar = similarRoutines.findSimilar(prompt);
+        if (similar != null) {
+            // From now on this exact wording is a plain cache hit.
+            responses.put(key, similar);
+        }
+        return similar;
+    }
+
+    private void remember(String key, String prompt, String response) {
+        if (isCacheable(response)) {
+            responses.put(key, response);
+            similarRoutines.add(prompt, response);
+        }
+    }
+
+    private String fallback(String prompt) {
+        try {
+            return objectMapper.writeValueAsString(templateGenerator.generate(prompt));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize routine", e);
+        }
+    }
+
+    static String normalize(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = PUNCTUATION.matcher(normalized).replaceAll(" ");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    static String cacheKey(String generationVersion, String prompt) {
+        // Hashed so long prompts don't bloat the cache; the parts are unambiguous thanks to the separators.
+        return OpenAIServiceImpl.sha256Hex(
+                OpenAIServiceImpl.MODEL.asString() + '\n'
+                        + generationVersion + '\n'
+                        + normalize(prompt)
+        );
+    }
+
+    private boolean isCacheable(String response) {
+        if (response == null) {
+            return false;
+        }
+        try {
+            JsonNode routine = objectMapper.readTree(response);
+            JsonNode tasks = routine.get("tasks");
+            return routine.isObject() && tasks != null && tasks.isArray() && !tasks.isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
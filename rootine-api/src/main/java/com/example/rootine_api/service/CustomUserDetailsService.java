@@ -1,6 +1,5 @@
 package com.example.rootine_api.service;
 
-import com.example.rootine_api.model.User;
 import com.example.rootine_api.repository.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
@@ -17,13 +16,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepo.findByEmail(email)
+        // The entity itself is returned so tokens issued at login can carry userId/uuid/roles claims.
+        return userRepo.findByEmail(email)
                 .orElseThrow(() -> new AccessDeniedException("User not authenticated or not found."));
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getEmail())
-                .password(user.getPassword())
-                .roles("USER")
-                .build();
     }
 }
\ No newline at end of file
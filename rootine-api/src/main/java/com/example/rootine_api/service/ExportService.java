@@ -0,0 +1,18 @@
+package com.example.rootine_api.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+
+    /**
+     * Streams one user's routines (with nested tasks and activation state) as NDJSON,
+     * gzip-compressed when requested. Memory use is constant in the size of the export.
+     */
+    void exportUser(Integer userId, OutputStream out, boolean gzip) throws IOException;
+
+    /**
+     * Streams every user's routines; admin only (checked by the caller before streaming starts).
+     */
+    void exportAll(OutputStream out, boolean gzip) throws IOException;
+}
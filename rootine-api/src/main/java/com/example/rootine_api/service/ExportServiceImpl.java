@@ -0,0 +1,82 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineExportRow;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private final RoutineRepo routineRepo;
+    private final RoutineExportWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(
+        RoutineRepo routineRepo,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.routineRepo = routineRepo;
+        this.writer = new RoutineExportWriter(objectMapper);
+        // The repository stream holds an open cursor, so it lives inside one read-only
+        // transaction for the whole response (the response body is written outside the request thread).
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void exportUser(Integer userId, OutputStream out, boolean gzip)
+        throws IOException {
+        export(() -> routineRepo.streamExportRowsByUserId(userId), out, gzip);
+    }
+
+    @Override
+    public void exportAll(OutputStream out, boolean gzip) throws IOException {
+        export(routineRepo::streamAllExportRows, out, gzip);
+    }
+
+    private void export(
+        Supplier<Stream<RoutineExportRow>> rows,
+        OutputStream out,
+        boolean gzip
+    ) throws IOException {
+        OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+        long started = System.nanoTime();
+
+        Long routines;
+        try {
+            routines = readOnlyTransaction.execute(status -> {
+                try (Stream<RoutineExportRow> stream = rows.get()) {
+                    return writer.write(stream, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (gzip) {
+            ((GZIPOutputStream) target).finish();
+        }
+        target.flush();
+        log.info(
+            "Exported {} routines in {} ms",
+            routines,
+            (System.nanoTime() - started) / 1_000_000
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.ImportReport;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ImportService {
+
+    /**
+     * Imports routines with nested tasks for the given user from an NDJSON stream or a JSON array.
+     *
+     * Records are parsed one at a time, validated, and written in chunked, batched transactions.
+     * Invalid records are reported and skipped; they never abort the rest of the import.
+     */
+    ImportReport importRoutines(Integer userId, InputStream in) throws IOException;
+}
@@ -0,0 +1,237 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.ImportReport;
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ImportServiceImpl implements ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final RoutineRepo routineRepo;
+    private final UserRepo userRepo;
+    private final RoutineRecordMapper recordMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final SyncVersionTracker syncVersionTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public ImportServiceImpl(
+        RoutineRepo routineRepo,
+        UserRepo userRepo,
+        RoutineRecordMapper recordMapper,
+        ObjectMapper objectMapper,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        SyncVersionTracker syncVersionTracker,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${rootine.import.chunk-size:500}") int chunkSize
+    ) {
+        this.routineRepo = routineRepo;
+        this.userRepo = userRepo;
+        this.recordMapper = recordMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.syncVersionTracker = syncVersionTracker;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public ImportReport importRoutines(Integer userId, InputStream in)
+        throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress();
+        List<Routine> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRecords = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            // A JSON array is read element by element; anything else as a stream of
+            // root-level values, which is exactly NDJSON.
+            JsonToken token = nextToken(parser, progress);
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = nextToken(parser, progress);
+            }
+
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                long record = ++progress.received;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(parser);
+                } catch (JsonProcessingException e) {
+                    // The stream cannot be resynchronized after a syntax error; keep what was read so far.
+                    progress.fail(record, "malformed JSON, import stopped: " + e.getOriginalMessage());
+                    break;
+                }
+
+                try {
+                    chunk.add(recordMapper.toRoutine(node));
+                    chunkRecords.add(record);
+                } catch (IllegalArgumentException e) {
+                    progress.fail(record, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(userId, chunk, chunkRecords, progress);
+                    chunk.clear();
+                    chunkRecords.clear();
+                }
+                token = nextToken(parser, progress);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(userId, chunk, chunkRecords, progress);
+        }
+
+        long durationMs = Math.max((System.nanoTime() - started) / 1_000_000, 1);
+        double recordsPerSecond = progress.received * 1000.0 / durationMs;
+        log.info(
+            "Imported {}/{} routines for user {} in {} ms ({} records/s)",
+            progress.imported,
+            progress.received,
+            userId,
+            durationMs,
+            Math.round(recordsPerSecond)
+        );
+        return new ImportReport(
+            progress.received,
+            progress.imported,
+            progress.failed,
+            progress.errors,
+            progress.failed > progress.errors.size(),
+            durationMs,
+            recordsPerSecond
+        );
+    }
+
+    private JsonToken nextToken(JsonParser parser, Progress progress) {
+        try {
+            return parser.nextToken();
+        } catch (IOException e) {
+            // The broken record counts as received, like every other failed record.
+            progress.fail(++progress.received, "malformed JSON, import stopped: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ─── Writes ───────────────────────────────────────────────────────────────────
+
+    /**
+     * Writes a chunk in one transaction (pooled ids + JDBC batching keep that to a few statements).
+     * If the chunk fails, its records are retried one per transaction so only the bad ones are reported.
+     */
+    private void saveChunk(
+        Integer userId,
+        List<Routine> routines,
+        List<Long> records,
+        Progress progress
+    ) {
+        try {
+            transaction.executeWithoutResult(status -> persist(userId, routines));
+            progress.imported += routines.size();
+            return;
+        } catch (RuntimeException e) {
+            log.debug("Import chunk failed, retrying records individually", e);
+        }
+
+        for (int i = 0; i < routines.size(); i++) {
+            Routine routine = routines.get(i);
+            resetIds(routine);
+            try {
+                transaction.executeWithoutResult(status -> persist(userId, List.of(routine)));
+                progress.imported++;
+            } catch (RuntimeException e) {
+                resetIds(routine);
+                progress.fail(
+                    records.get(i),
+                    "could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()
+                );
+            }
+        }
+    }
+
+    private void persist(Integer userId, List<Routine> routines) {
+        User owner = userRepo.getReferenceById(userId);
+
+        // At most one routine per user may be active: the last active record wins.
+        Routine active = null;
+        for (Routine routine : routines) {
+            if (Boolean.TRUE.equals(routine.getIsActive())) {
+                if (active != null) {
+                    active.setIsActive(false);
+                }
+                active = routine;
+            }
+        }
+        List<Integer> deactivated = active != null
+            ? routineRepo.deactivateOthersForUser(userId, null)
+            : List.of();
+
+        List<Integer> routineIds = new ArrayList<>(routines.size());
+        for (Routine routine : routines) {
+            routine.setUser(owner);
+            entityManager.persist(routine);
+            routineIds.add(routine.getRoutineId());
+        }
+        entityManager.flush();
+        // One sync version per chunk rather than one change event (and push) per routine.
+        syncVersionTracker.routinesCreated(userId, routineIds);
+        if (active != null) {
+            // Except that switching the active routine also changed existing routines.
+            eventPublisher.publishEvent(
+                RoutineChangeEvent.activated(userId, active.getRoutineId(), deactivated)
+            );
+        }
+        entityManager.clear();
+    }
+
+    // Ids handed out to a rolled-back attempt must not be reused as if the rows existed.
+    private static void resetIds(Routine routine) {
+        routine.setRoutineId(null);
+        for (Task task : routine.getTasks()) {
+            task.setTaskId(null);
+        }
+    }
+
+    private static final class Progress {
+        private long received;
+        private long imported;
+        private long failed;
+        private final List<ImportReport.RecordError> errors = new ArrayList<>();
+
+        private void fail(long record, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RecordError(record, message));
+            }
+        }
+    }
+}
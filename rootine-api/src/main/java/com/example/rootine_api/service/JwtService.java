@@ -1,5 +1,7 @@
 package com.example.rootine_api.service;
 
+import com.example.rootine_api.security.JwtPrincipal;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -8,4 +10,26 @@ public interface JwtService {
     String generateToken(Authentication authentication);
     String extractUsername(String token);
     boolean isTokenValid(String token, UserDetails userDetails);
-}
\ No newline at end of file
+
+    /**
+     * Verifies the token signature once and returns its claims.
+     * Repeat calls for the same token are served from a bounded cache until the token expires.
+     */
+    Claims parseClaims(String token);
+
+    /**
+     * Validates already-verified claims against the loaded user without re-parsing the token.
+     */
+    boolean isTokenValid(Claims claims, UserDetails userDetails);
+
+    /**
+     * Validates a stateless token (one carrying principal claims): not expired and not revoked.
+     */
+    boolean isTokenValid(Claims claims);
+
+    /**
+     * Builds the request principal from userId/uuid/roles claims,
+     * or returns null for tokens issued without them.
+     */
+    JwtPrincipal extractPrincipal(Claims claims);
+}
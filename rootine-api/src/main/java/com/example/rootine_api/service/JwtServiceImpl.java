@@ -1,18 +1,34 @@
 package com.example.rootine_api.service;
 
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.security.JwtPrincipal;
+import com.example.rootine_api.security.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -20,10 +36,49 @@ public class JwtServiceImpl implements JwtService {
 
     private static final String SECRET_KEY = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
     private static final long EXPIRATION_TIME = 86400000; // 24 hours
+    private static final long CLAIMS_CACHE_SIZE = 10_000;
+
+    // Principal claims carried by tokens issued for a User entity (see extractPrincipal)
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String UUID_CLAIM = "uuid";
+    private static final String ROLES_CLAIM = "roles";
+
+    // Decoded once at class load; both the key and the parser are immutable and thread-safe.
+    private static final Key SIGN_IN_KEY = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(SIGN_IN_KEY).build();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    /**
+     * Verified claims keyed by the SHA-256 digest of the raw token, so bearer tokens are never kept in memory.
+     * Each entry expires together with its token; cached Claims are shared and must be treated as read-only.
+     */
+    private final Cache<String, Claims> verifiedClaims = Caffeine.newBuilder()
+            .maximumSize(CLAIMS_CACHE_SIZE)
+            .expireAfter(new TokenExpiry())
+            .build();
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public JwtServiceImpl(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
 
     @Override
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> extraClaims = new HashMap<>();
+        if (userDetails instanceof User user && user.getUserId() != null) {
+            extraClaims.put(USER_ID_CLAIM, user.getUserId());
+            extraClaims.put(UUID_CLAIM, user.getUuid() != null ? user.getUuid().toString() : null);
+            extraClaims.put(ROLES_CLAIM, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        }
+        return generateToken(extraClaims, userDetails);
     }
 
     @Override
@@ -38,43 +93,109 @@ public class JwtServiceImpl implements JwtService {
 
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    @Override
+    public Claims parseClaims(String token) {
+        String digest = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Throws on bad signature or expiry, so only verified tokens are cached.
+        Claims claims = PARSER.parseClaimsJws(token).getBody();
+        verifiedClaims.put(digest, claims);
+        return claims;
+    }
+
+    @Override
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return username != null
+                && username.equals(userDetails.getUsername())
+                && !isTokenExpired(claims);
+    }
+
+    @Override
+    public boolean isTokenValid(Claims claims) {
+        Integer userId = claims.get(USER_ID_CLAIM, Integer.class);
+        return claims.getSubject() != null
+                && userId != null
+                && !isTokenExpired(claims)
+                && !tokenRevocationService.isRevoked(userId, claims.getIssuedAt());
+    }
+
+    @Override
+    public JwtPrincipal extractPrincipal(Claims claims) {
+        Integer userId = claims.get(USER_ID_CLAIM, Integer.class);
+        if (userId == null) {
+            return null; // issued before principal claims existed
+        }
+
+        String uuid = claims.get(UUID_CLAIM, String.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        List<SimpleGrantedAuthority> authorities = roles == null
+                ? List.of()
+                : roles.stream().map(role -> new SimpleGrantedAuthority(role.toString())).toList();
+
+        return new JwtPrincipal(
+                userId,
+                uuid != null ? UUID.fromString(uuid) : null,
+                claims.getSubject(),
+                authorities
+        );
     }
 
     private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(tokenRevocationService.issuedAt((Integer) extraClaims.get(USER_ID_CLAIM), now))
+                .setExpiration(new Date(now + EXPIRATION_TIME))
+                .signWith(SIGN_IN_KEY, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
     }
 
     private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseClaims(token));
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Expires cached claims at the token's own "exp", capped at the issuing lifetime.
+     */
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long ttlMillis = EXPIRATION_TIME;
+            Date expiration = claims.getExpiration();
+            if (expiration != null) {
+                ttlMillis = Math.min(ttlMillis, expiration.getTime() - System.currentTimeMillis());
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
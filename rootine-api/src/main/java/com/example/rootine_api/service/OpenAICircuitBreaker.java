@@ -0,0 +1,101 @@
+package com.example.rootine_api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker for OpenAI calls.
+ *
+ * CLOSED: calls go through; failureThreshold consecutive failures (errors or calls slower
+ * than slowCall) open the circuit. OPEN: calls are refused for openDuration, callers fall back.
+ * HALF_OPEN: a single trial call decides between CLOSED and OPEN again.
+ *
+ * Every permitted call must be followed by exactly one onSuccess, onFailure or release.
+ * The state is published as the "openai.circuit.open" gauge (1 while open or half-open).
+ */
+@Component
+public class OpenAICircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final long slowCallNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    @Autowired
+    public OpenAICircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${rootine.openai.breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${rootine.openai.breaker.open-duration:30s}") Duration openDuration,
+            @Value("${rootine.openai.breaker.slow-call:30s}") Duration slowCall
+    ) {
+        this(meterRegistry, failureThreshold, openDuration, slowCall, System::nanoTime);
+    }
+
+    OpenAICircuitBreaker(MeterRegistry meterRegistry, int failureThreshold, Duration openDuration,
+                         Duration slowCall, LongSupplier nanoTime) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.slowCallNanos = slowCall.toNanos();
+        this.nanoTime = nanoTime;
+        meterRegistry.gauge("openai.circuit.open", this, breaker -> breaker.state() == State.CLOSED ? 0 : 1);
+    }
+
+    /**
+     * Whether a call may go upstream now. Moves an expired OPEN circuit to HALF_OPEN and lets one trial through.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoTime.getAsLong() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                return false; // the trial call is still running
+        }
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        if (durationNanos >= slowCallNanos) {
+            onFailure();
+            return;
+        }
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+
+    /**
+     * Ends a permitted call that says nothing about OpenAI (e.g. the client went away). An unfinished
+     * trial leaves the circuit OPEN and already expired, so the next call becomes the trial.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
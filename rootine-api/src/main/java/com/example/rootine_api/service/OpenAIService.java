@@ -1,5 +1,36 @@
 package com.example.rootine_api.service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
 public interface OpenAIService {
     String generateRoutine(String prompt);
+
+    /**
+     * Same result as generateRoutine, without holding the caller's thread while the model runs.
+     * The future fails with GenerationBusyException when no capacity is left and with TimeoutException
+     * when the call takes too long.
+     *
+     * The default simply runs generateRoutine on the calling thread.
+     */
+    default CompletableFuture<String> generateRoutineAsync(String prompt) {
+        try {
+            return CompletableFuture.completedFuture(generateRoutine(prompt));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Streams the completion for a prompt: onDelta receives each text fragment as it arrives.
+     * Blocks until the completion ends and returns the full text, so call it off the request thread.
+     * If onDelta throws (e.g. the client went away), the upstream stream is closed and the exception propagates.
+     *
+     * Implementations that cannot stream deliver the whole response as one fragment.
+     */
+    default String streamRoutine(String prompt, Consumer<String> onDelta) {
+        String response = generateRoutine(prompt);
+        onDelta.accept(response);
+        return response;
+    }
 }
@@ -1,17 +1,59 @@
 package com.example.rootine_api.service;
 
+import com.example.rootine_api.dto.GeneratedRoutine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openai.client.OpenAIClient;
+import com.openai.core.ObjectMappers;
+import com.openai.core.http.StreamResponse;
 import com.openai.models.ChatModel;
 import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
-import lombok.RequiredArgsConstructor;
+import com.openai.models.chat.completions.ChatCompletionStreamOptions;
+import com.openai.models.completions.CompletionUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+
+/**
+ * Generates routines with the OpenAI chat completions API, in one of two modes
+ * (rootine.openai.structured-output):
+ *
+ * - structured (default): a short system instruction plus a JSON schema derived from GeneratedRoutine,
+ *   sent as response_format. The API guarantees schema-conformant JSON; the result is parsed and
+ *   validated here and returned re-serialized, so malformed output never reaches clients.
+ * - legacy: META_INSTRUCTIONS prepended to every prompt, raw model text returned as-is.
+ *
+ * Prompt/completion token counts of every call are logged.
+ */
 @Service
-@RequiredArgsConstructor
-public class OpenAIServiceImpl implements OpenAIService {
+public class OpenAIServiceImpl implements OpenAIService, RoutineGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAIServiceImpl.class);
+
+    static final ChatModel MODEL = ChatModel.GPT_5_MINI;
 
     private final OpenAIClient openAIClient;
+    private final ObjectMapper objectMapper;
+    private final boolean structuredOutput;
+
+    public OpenAIServiceImpl(
+            OpenAIClient openAIClient,
+            ObjectMapper objectMapper,
+            @Value("${rootine.openai.structured-output:true}") boolean structuredOutput
+    ) {
+        this.openAIClient = openAIClient;
+        this.objectMapper = objectMapper;
+        this.structuredOutput = structuredOutput;
+    }
 
     /**
      * IMPORTANT:
@@ -55,18 +97,140 @@ public class OpenAIServiceImpl implements OpenAIService {
       { "detailLevel": "medium", "tasks": [] }
     """;
 
+    /**
+     * Structured mode only needs what the schema can't say. Sent as a fixed system message
+     * ahead of the user prompt, so it also stays eligible for the API's prompt caching.
+     */
+    static final String STRUCTURED_INSTRUCTIONS = """
+    You create practical daily routines. Fill the schema for the user's request: \
+    tasks in chronological order, startTime as a 24h time of day, duration in minutes. \
+    If the request is not about a routine, return no tasks.\
+    """;
+
+    // Derived once from the DTO; strict, so every response is schema-conformant JSON.
+    private static final ChatCompletionCreateParams.ResponseFormat ROUTINE_SCHEMA = ChatCompletionCreateParams.builder()
+            .model(MODEL)
+            .addUserMessage("")
+            .responseFormat(GeneratedRoutine.class)
+            .build()
+            .rawParams()
+            .responseFormat()
+            .orElseThrow();
+
+    /**
+     * Covers the output mode, its instructions and the schema derived from the DTOs. Cached and reused
+     * responses are keyed by it, so legacy output (never validated) is not served once structured mode is on,
+     * nor anything generated before an instruction or DTO change.
+     */
+    private static final String SCHEMA_HASH = sha256Hex(schemaJson());
+    private static final String STRUCTURED_VERSION =
+            sha256Hex("structured\n" + STRUCTURED_INSTRUCTIONS + '\n' + SCHEMA_HASH).substring(0, 12);
+    private static final String LEGACY_VERSION =
+            sha256Hex("legacy\n" + META_INSTRUCTIONS + '\n' + SCHEMA_HASH).substring(0, 12);
+
+    static String generationVersion(boolean structuredOutput) {
+        return structuredOutput ? STRUCTURED_VERSION : LEGACY_VERSION;
+    }
+
     @Override
     public String generateRoutine(String userPrompt) {
-        String fullPrompt = META_INSTRUCTIONS + "\n\nUser request: " + userPrompt;
+        ChatCompletion chatCompletion = openAIClient.chat().completions().create(buildParams(userPrompt, false));
+        chatCompletion.usage().ifPresent(usage -> logUsage("generate", usage));
 
-        ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
-                .addUserMessage(fullPrompt)
-                .model(ChatModel.GPT_5_MINI)
-                .build();
+        String content = chatCompletion.choices().get(0).message().content().orElse(getEmptyRoutine());
+        return structuredOutput ? toJson(parseRoutine(content)) : content;
+    }
 
-        ChatCompletion chatCompletion = openAIClient.chat().completions().create(params);
+    /**
+     * Structured mode: the routine as a validated DTO. In legacy mode the raw text is parsed the same way.
+     */
+    @Override
+    public GeneratedRoutine generate(String userPrompt) {
+        return parseRoutine(generateRoutine(userPrompt));
+    }
 
-        return chatCompletion.choices().get(0).message().content().orElse(getEmptyRoutine());
+    @Override
+    public String streamRoutine(String userPrompt, Consumer<String> onDelta) {
+        StringBuilder content = new StringBuilder();
+        // Closing the response (also on exceptions from onDelta) cancels the upstream HTTP stream.
+        try (StreamResponse<ChatCompletionChunk> stream =
+                     openAIClient.chat().completions().createStreaming(buildParams(userPrompt, true))) {
+            stream.stream().forEach(chunk -> {
+                // Only the last chunk carries usage, and it has no choices.
+                chunk.usage().ifPresent(usage -> logUsage("stream", usage));
+                chunk.choices().forEach(choice -> choice.delta().content().ifPresent(delta -> {
+                    if (!delta.isEmpty()) {
+                        content.append(delta);
+                        onDelta.accept(delta);
+                    }
+                }));
+            });
+        }
+        if (content.isEmpty()) {
+            return getEmptyRoutine();
+        }
+        return structuredOutput ? toJson(parseRoutine(content.toString())) : content.toString();
+    }
+
+    /**
+     * Parses model output into a GeneratedRoutine and validates it.
+     * Throws IllegalStateException for malformed JSON, IllegalArgumentException for invalid values.
+     */
+    GeneratedRoutine parseRoutine(String content) {
+        GeneratedRoutine routine;
+        try {
+            routine = objectMapper.readValue(content, GeneratedRoutine.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Model returned malformed routine JSON", e);
+        }
+        routine.validate();
+        return routine;
+    }
+
+    ChatCompletionCreateParams buildParams(String userPrompt, boolean streaming) {
+        ChatCompletionCreateParams.Builder params = ChatCompletionCreateParams.builder().model(MODEL);
+        if (structuredOutput) {
+            params.addSystemMessage(STRUCTURED_INSTRUCTIONS)
+                    .addUserMessage(userPrompt)
+                    .responseFormat(ROUTINE_SCHEMA);
+        } else {
+            params.addUserMessage(META_INSTRUCTIONS + "\n\nUser request: " + userPrompt);
+        }
+        if (streaming) {
+            params.streamOptions(ChatCompletionStreamOptions.builder().includeUsage(true).build());
+        }
+        return params.build();
+    }
+
+    private String toJson(GeneratedRoutine routine) {
+        try {
+            return objectMapper.writeValueAsString(routine);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize routine", e);
+        }
+    }
+
+    private void logUsage(String call, CompletionUsage usage) {
+        log.info("OpenAI {} ({}): promptTokens={} completionTokens={} totalTokens={}",
+                call, structuredOutput ? "structured" : "legacy",
+                usage.promptTokens(), usage.completionTokens(), usage.totalTokens());
+    }
+
+    private static String schemaJson() {
+        try {
+            return ObjectMappers.jsonMapper().writeValueAsString(ROUTINE_SCHEMA);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize routine schema", e);
+        }
+    }
+
+    static String sha256Hex(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private String getEmptyRoutine() {
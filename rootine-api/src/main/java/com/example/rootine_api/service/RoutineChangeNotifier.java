@@ -0,0 +1,46 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pushes RoutineChangeEvents to the owner's WebSocket sessions once the change is committed.
+ *
+ * Events published inside a transaction wait for its commit and are dropped on rollback,
+ * so clients never see a change that did not happen. Events published outside one
+ * (fallbackExecution) are sent straight away: the repository call has already committed.
+ *
+ * Delivery goes through the user destination, so only the owner's own sessions are looked up
+ * and written to; handing off to the outbound channel does not wait on any client.
+ */
+@Component
+public class RoutineChangeNotifier {
+
+    public static final String DESTINATION = "/queue/changes";
+
+    private static final Logger log = LoggerFactory.getLogger(RoutineChangeNotifier.class);
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public RoutineChangeNotifier(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(RoutineChangeEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(event.userId().toString(), DESTINATION, event);
+        } catch (MessagingException e) {
+            // The change itself is committed; a missed push only means clients refetch later.
+            log.warn("Could not push {} {} for user {}: {}", event.entity(), event.action(), event.userId(), e.getMessage());
+        }
+    }
+}
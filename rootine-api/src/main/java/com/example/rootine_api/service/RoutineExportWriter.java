@@ -0,0 +1,119 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineExportRow;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes export rows as NDJSON: one routine per line, its tasks nested under "tasks",
+ * using the same field names as the Routine/Task JSON accepted by POST /routine.
+ *
+ * Rows are consumed one at a time and written straight to the generator, so memory
+ * use does not depend on how many routines or tasks are exported.
+ */
+public class RoutineExportWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public RoutineExportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes all rows (grouped by routineId) and returns the number of routines written.
+     * Does not close the output stream.
+     */
+    public long write(Stream<RoutineExportRow> rows, OutputStream out) throws IOException {
+        long routines = 0;
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null);
+
+            Integer currentRoutineId = null;
+            Iterator<RoutineExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                RoutineExportRow row = iterator.next();
+                if (!Objects.equals(row.routineId(), currentRoutineId)) {
+                    if (currentRoutineId != null) {
+                        endRoutine(gen);
+                    }
+                    startRoutine(gen, row);
+                    currentRoutineId = row.routineId();
+                    routines++;
+                }
+                if (row.taskId() != null) {
+                    writeTask(gen, row);
+                }
+            }
+            if (currentRoutineId != null) {
+                endRoutine(gen);
+            }
+        }
+        return routines;
+    }
+
+    private void startRoutine(JsonGenerator gen, RoutineExportRow row) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("routineId", row.routineId());
+        writeNumber(gen, "userId", row.userId());
+        gen.writeStringField("name", row.name());
+        gen.writeStringField("description", row.description());
+        writeString(gen, "detailLevel", row.detailLevel());
+        writeBoolean(gen, "isActive", row.isActive());
+        writeString(gen, "createdAt", row.createdAt());
+        gen.writeArrayFieldStart("tasks");
+    }
+
+    private void endRoutine(JsonGenerator gen) throws IOException {
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private void writeTask(JsonGenerator gen, RoutineExportRow row) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("taskId", row.taskId());
+        gen.writeStringField("title", row.taskTitle());
+        gen.writeStringField("description", row.taskDescription());
+        writeString(gen, "taskType", row.taskType());
+        writeString(gen, "startTime", row.taskStartTime());
+        writeNumber(gen, "duration", row.taskDuration());
+        writeString(gen, "priority", row.taskPriority());
+        writeBoolean(gen, "isCompleted", row.taskIsCompleted());
+        writeNumber(gen, "position", row.taskPosition());
+        writeString(gen, "createdAt", row.taskCreatedAt());
+        gen.writeEndObject();
+    }
+
+    // Enums by name and java.time values as ISO-8601, matching the app's JSON format
+
+    private static void writeString(JsonGenerator gen, String field, Object value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeStringField(field, value instanceof Enum<?> e ? e.name() : value.toString());
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, Integer value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator gen, String field, Boolean value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeBooleanField(field, value);
+        }
+    }
+}
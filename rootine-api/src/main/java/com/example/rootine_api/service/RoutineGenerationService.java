@@ -0,0 +1,16 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import java.util.concurrent.CompletableFuture;
+
+public interface RoutineGenerationService {
+
+    /**
+     * Generates a routine for the prompt and saves it, with its tasks, as a new routine of the given user.
+     *
+     * Generation goes through OpenAIService.generateRoutineAsync (cache, bulkhead, template fallback);
+     * the result is validated and persisted in one batched transaction. The future completes with the
+     * saved routine, or fails with IllegalArgumentException when the generated routine is invalid.
+     */
+    CompletableFuture<Routine> generateAndSave(Integer userId, String prompt);
+}
@@ -0,0 +1,96 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.dto.RoutineChangeEvent.Action;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class RoutineGenerationServiceImpl implements RoutineGenerationService {
+
+    private static final int MAX_NAME_LENGTH = 255;
+
+    private final OpenAIService openAIService;
+    private final RoutineRecordMapper recordMapper;
+    private final RoutineRepo routineRepo;
+    private final UserRepo userRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final Executor executor;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Saving runs on Spring Boot's application task executor, not on whichever thread completed
+     * the generation (an openAIExecutor thread, or the JDK timer after a timeout).
+     */
+    public RoutineGenerationServiceImpl(
+        OpenAIService openAIService,
+        RoutineRecordMapper recordMapper,
+        RoutineRepo routineRepo,
+        UserRepo userRepo,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("applicationTaskExecutor") Executor executor,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.openAIService = openAIService;
+        this.recordMapper = recordMapper;
+        this.routineRepo = routineRepo;
+        this.userRepo = userRepo;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Routine> generateAndSave(Integer userId, String prompt) {
+        return openAIService.generateRoutineAsync(prompt)
+            .thenApplyAsync(generated -> save(userId, prompt, generated), executor);
+    }
+
+    private Routine save(Integer userId, String prompt, String generated) {
+        JsonNode record;
+        try {
+            record = objectMapper.readTree(generated);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Generated routine is not valid JSON");
+        }
+        if (record != null && record.isObject() && !record.hasNonNull("name")) {
+            // Model output may leave the name out; the prompt is the best title we have.
+            ((ObjectNode) record).put("name", defaultName(prompt));
+        }
+
+        // Same validation and position assignment as the bulk import.
+        Routine routine = recordMapper.toRoutine(record);
+        routine.setIsActive(false);
+        return transaction.execute(status -> {
+            routine.setUser(userRepo.getReferenceById(userId));
+            Routine saved = routineRepo.save(routine);
+            eventPublisher.publishEvent(
+                RoutineChangeEvent.routine(userId, Action.CREATED, saved.getRoutineId())
+            );
+            return saved;
+        });
+    }
+
+    private static String defaultName(String prompt) {
+        String name = prompt == null ? "" : prompt.strip().replaceAll("\\s+", " ");
+        if (name.isEmpty()) {
+            return "Generated routine";
+        }
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+}
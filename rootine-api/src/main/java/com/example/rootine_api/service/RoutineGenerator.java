@@ -0,0 +1,18 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.GeneratedRoutine;
+
+/**
+ * Turns a free-text prompt into a routine.
+ *
+ * Implementations: OpenAIServiceImpl (the model) and TemplateRoutineGenerator (local, no network).
+ * CachingOpenAIService picks between them; callers go through OpenAIService.
+ */
+public interface RoutineGenerator {
+
+    /**
+     * Returns a validated routine for the prompt. May return a routine without tasks
+     * when nothing sensible can be generated.
+     */
+    GeneratedRoutine generate(String prompt);
+}
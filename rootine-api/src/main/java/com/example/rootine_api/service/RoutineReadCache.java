@@ -0,0 +1,215 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.dto.RoutineTimeline;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process cache for owner reads: routines by id (with their tasks), tasks by id and
+ * the ordered task pages of a routine.
+ *
+ * Entries are keyed by the owner's current generation. Every RoutineChangeEvent (add, update,
+ * move, reorder, activate, delete) replaces that generation, which drops all of the user's
+ * entries at once without touching anyone else's. While one of the user's transactions is
+ * between its first change and completion, reads bypass the cache; the generation is replaced
+ * after completion. A load that started earlier can only be stored under the old generation,
+ * so no read after a commit sees data from before it.
+ *
+ * The active routine's timeline (one per user) has a generation of its own, replaced only by
+ * activations and by changes to the routine it was laid out from, so edits to the user's other
+ * routines keep it. With no timeline cached the routine is unknown and any change replaces it.
+ *
+ * Values are shared between requests and must be treated as read-only; task pages and
+ * timelines hold unmodifiable lists. Each cache is bounded by rows held (a routine weighs one
+ * plus its tasks) and published as the "cache.*" meters plus "cache.rows" for its current weight.
+ */
+@Component
+public class RoutineReadCache {
+
+    static final String ROUTINES = "routine.byId";
+    static final String TASKS = "task.byId";
+    static final String ROUTINE_TASKS = "routine.tasks";
+    static final String TIMELINES = "routine.timeline";
+
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final Cache<Key, Routine> routines;
+    private final Cache<Key, Task> tasks;
+    private final Cache<Key, KeysetPage<Task>> routineTasks;
+    private final Cache<Key, RoutineTimeline> timelines;
+
+    // Current generation per user (and per user's timeline). Values come from one counter and are never reused, so a user
+    // evicted from here simply starts over with a generation no stale entry carries.
+    private final AtomicLong generationCounter = new AtomicLong();
+    private final Cache<Integer, Long> generations = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_USERS)
+            .build();
+    private final Cache<Integer, Long> timelineGenerations = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_USERS)
+            .build();
+
+    // Users with a writing transaction in progress, by number of such transactions.
+    private final ConcurrentMap<Integer, Integer> writing = new ConcurrentHashMap<>();
+
+    public RoutineReadCache(
+            MeterRegistry meterRegistry,
+            @Value("${rootine.read-cache.max-rows:50000}") long maxRows,
+            @Value("${rootine.read-cache.ttl:10m}") Duration ttl
+    ) {
+        this.routines = build(meterRegistry, ROUTINES, maxRows, ttl,
+                (key, routine) -> 1 + routine.getTasks().size());
+        this.tasks = build(meterRegistry, TASKS, maxRows, ttl, (key, task) -> 1);
+        this.routineTasks = build(meterRegistry, ROUTINE_TASKS, maxRows, ttl,
+                (key, page) -> 1 + page.getItems().size());
+        this.timelines = build(meterRegistry, TIMELINES, maxRows, ttl,
+                (key, timeline) -> 1 + timeline.slots().size() + timeline.unscheduled().size());
+    }
+
+    public Optional<Routine> routine(Integer userId, Integer routineId, Supplier<Optional<Routine>> loader) {
+        return read(routines, generations, userId, routineId, null, 0, loader);
+    }
+
+    public Optional<Task> task(Integer userId, Integer taskId, Supplier<Optional<Task>> loader) {
+        return read(tasks, generations, userId, taskId, null, 0, loader);
+    }
+
+    /**
+     * The user's active routine timeline; empty (and not cached) when no routine is active.
+     */
+    public Optional<RoutineTimeline> timeline(Integer userId, Supplier<Optional<RoutineTimeline>> loader) {
+        return read(timelines, timelineGenerations, userId, null, null, 0, loader);
+    }
+
+    /**
+     * One page of a routine's tasks in (position, taskId) order. The loader throws when the
+     * routine is not the user's; that result is not cached.
+     */
+    public KeysetPage<Task> routineTasks(
+            Integer userId,
+            Integer routineId,
+            String cursor,
+            int size,
+            Supplier<KeysetPage<Task>> loader
+    ) {
+        return read(routineTasks, generations, userId, routineId, cursor, size, () -> {
+            KeysetPage<Task> page = loader.get();
+            return Optional.of(new KeysetPage<>(List.copyOf(page.getItems()), page.getNextCursor()));
+        }).orElseThrow();
+    }
+
+    @EventListener
+    public void onChange(RoutineChangeEvent event) {
+        Integer userId = event.userId();
+        if (userId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(event);
+            return;
+        }
+
+        writing.merge(userId, 1, Integer::sum);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // New generation first: once the user is no longer marked, reads must miss.
+                invalidate(event);
+                writing.computeIfPresent(userId, (id, count) -> count == 1 ? null : count - 1);
+            }
+        });
+    }
+
+    private void invalidate(RoutineChangeEvent event) {
+        Integer userId = event.userId();
+        generations.invalidate(userId);
+        if (affectsTimeline(event)) {
+            timelineGenerations.invalidate(userId);
+        }
+    }
+
+    private boolean affectsTimeline(RoutineChangeEvent event) {
+        if (event.action() == RoutineChangeEvent.Action.ACTIVATED || event.routineId() == null) {
+            return true;
+        }
+        Long generation = timelineGenerations.getIfPresent(event.userId());
+        RoutineTimeline cached = generation == null ? null : timelines.getIfPresent(new Key(generation, null, null, 0));
+        // Nothing cached: a timeline may be loading right now, from an unknown routine.
+        return cached == null || cached.routineId().equals(event.routineId());
+    }
+
+    private <V> Optional<V> read(
+            Cache<Key, V> cache,
+            Cache<Integer, Long> generationsOfUsers,
+            Integer userId,
+            Integer id,
+            String cursor,
+            int size,
+            Supplier<Optional<V>> loader
+    ) {
+        if (writing.containsKey(userId)) {
+            return loader.get();
+        }
+
+        // Generation is taken before loading: if a change commits meanwhile, this entry is already stale.
+        long generation = generationsOfUsers.get(userId, user -> generationCounter.incrementAndGet());
+        Key key = new Key(generation, id, cursor, size);
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<V> loaded = loader.get();
+        loaded.ifPresent(value -> cache.put(key, value));
+        return loaded;
+    }
+
+    private static <V> Cache<Key, V> build(
+            MeterRegistry meterRegistry,
+            String name,
+            long maxRows,
+            Duration ttl,
+            Weigher<Key, V> weigher
+    ) {
+        Cache<Key, V> cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher(weigher)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        // Caffeine settles the weight asynchronously; run its pending maintenance so a scrape is current.
+        Gauge.builder("cache.rows", cache, c -> {
+                    c.cleanUp();
+                    return c.policy().eviction()
+                            .map(eviction -> eviction.weightedSize().orElse(0))
+                            .orElse(0L);
+                })
+                .tag("cache", name)
+                .description("Rows (routines and tasks) held by the cache")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    // Generations are unique across users, so the user id need not be part of the key.
+    private record Key(long generation, Integer id, String cursor, int size) {
+    }
+}
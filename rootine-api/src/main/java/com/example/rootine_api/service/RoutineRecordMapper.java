@@ -0,0 +1,154 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.enums.DetailLevel;
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import org.springframework.stereotype.Component;
+
+/**
+ * Validates one routine record (routine fields plus nested "tasks", the shape written by
+ * the export and accepted by POST /routine) and maps it to new, unsaved entities.
+ *
+ * Ids, owners and timestamps in the record are ignored: a record always becomes a new routine.
+ * Invalid input fails with an IllegalArgumentException naming the offending field.
+ */
+@Component
+public class RoutineRecordMapper {
+
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_TITLE_LENGTH = 150;
+
+    public Routine toRoutine(JsonNode record) {
+        if (record == null || !record.isObject()) {
+            throw new IllegalArgumentException("record must be a JSON object");
+        }
+
+        Routine routine = new Routine();
+        routine.setName(requiredText(record, "name", MAX_NAME_LENGTH));
+        routine.setDescription(optionalText(record, "description"));
+        DetailLevel detailLevel = optionalEnum(record, "detailLevel", DetailLevel.class);
+        if (detailLevel != null) {
+            routine.setDetailLevel(detailLevel);
+        }
+        routine.setIsActive(optionalBoolean(record, "isActive", false));
+
+        JsonNode tasks = record.get("tasks");
+        if (tasks != null && !tasks.isNull()) {
+            if (!tasks.isArray()) {
+                throw new IllegalArgumentException("tasks must be an array");
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                Task task = toTask(tasks.get(i), "tasks[" + i + "].");
+                task.setRoutine(routine);
+                routine.getTasks().add(task);
+            }
+        }
+
+        TaskPositionAllocator.assignInitialPositions(routine);
+        return routine;
+    }
+
+    private Task toTask(JsonNode node, String path) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException(path + " must be a JSON object");
+        }
+        try {
+            Task task = new Task();
+            task.setTitle(requiredText(node, "title", MAX_TITLE_LENGTH));
+            task.setDescription(optionalText(node, "description"));
+            TaskType taskType = optionalEnum(node, "taskType", TaskType.class);
+            if (taskType != null) {
+                task.setTaskType(taskType);
+            }
+            Priority priority = optionalEnum(node, "priority", Priority.class);
+            if (priority != null) {
+                task.setPriority(priority);
+            }
+            task.setStartTime(optionalTime(node, "startTime"));
+            task.setDuration(optionalNonNegativeInt(node, "duration"));
+            task.setIsCompleted(optionalBoolean(node, "isCompleted", false));
+            // Positions are reassigned in record order, so ranks from another database never collide.
+            return task;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(path + e.getMessage());
+        }
+    }
+
+    // ─── Field readers ────────────────────────────────────────────────────────────
+
+    private static String requiredText(JsonNode node, String field, int maxLength) {
+        String value = optionalText(node, field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " must be at most " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static String optionalText(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return value.asText();
+    }
+
+    private static <E extends Enum<E>> E optionalEnum(JsonNode node, String field, Class<E> type) {
+        String value = optionalText(node, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                field + " must be one of " + Arrays.toString(type.getEnumConstants()) + ", got '" + value + "'"
+            );
+        }
+    }
+
+    private static Boolean optionalBoolean(JsonNode node, String field, boolean defaultValue) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return defaultValue;
+        }
+        if (!value.isBoolean()) {
+            throw new IllegalArgumentException(field + " must be a boolean");
+        }
+        return value.booleanValue();
+    }
+
+    private static Integer optionalNonNegativeInt(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.canConvertToInt() || !value.isIntegralNumber() || value.intValue() < 0) {
+            throw new IllegalArgumentException(field + " must be a non-negative integer");
+        }
+        return value.intValue();
+    }
+
+    private static LocalTime optionalTime(JsonNode node, String field) {
+        String value = optionalText(node, field);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " must be a time like 07:30");
+        }
+    }
+}
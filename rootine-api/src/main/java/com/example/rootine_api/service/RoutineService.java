@@ -1,13 +1,20 @@
 package com.example.rootine_api.service;
 
 import com.example.rootine_api.model.Routine;
-
-import java.util.List;
+import com.example.rootine_api.pagination.KeysetPage;
+import java.util.Optional;
 
 public interface RoutineService {
-    List<Routine> getAllRoutines();
+    KeysetPage<Routine> getAllRoutines(String cursor, Integer limit);
     Routine getRoutineById(Integer id);
-    List<Routine> getRoutinesByUserId(Integer userId);
+
+    /**
+     * Content version of a routine the caller may read (changes with the routine or any of its tasks),
+     * without loading it. Empty when the routine does not exist or belongs to someone else.
+     */
+    Optional<Long> getRoutineVersion(Integer id);
+
+    KeysetPage<Routine> getRoutinesByUserId(Integer userId, String cursor, Integer limit);
     Routine addRoutine(Routine routine);
     Routine updateRoutine(Integer id, Routine routine);
     void deleteRoutine(Integer id);
@@ -1,111 +1,324 @@
 package com.example.rootine_api.service;
 
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.dto.RoutineChangeEvent.Action;
 import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.pagination.PageCursor;
+import com.example.rootine_api.pagination.PageSize;
 import com.example.rootine_api.repository.RoutineRepo;
 import com.example.rootine_api.security.AuthService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class RoutineServiceImpl implements RoutineService {
 
+    // Activations for one user queue on its routine rows, but a concurrent create or import of an
+    // active routine can still take the uk_routine_active_user slot first; the loser retries
+    // after a short randomized pause (up to 5ms, doubling per attempt).
+    private static final int ACTIVATION_ATTEMPTS = 3;
+    private static final long ACTIVATION_BACKOFF_MILLIS = 5;
+
     private final RoutineRepo routineRepo;
     private final AuthService authService;
+    private final PageSize pageSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoutineReadCache readCache;
+    private final TransactionTemplate transaction;
 
     public RoutineServiceImpl(
         RoutineRepo routineRepo,
-        AuthService authService
+        AuthService authService,
+        PageSize pageSize,
+        ApplicationEventPublisher eventPublisher,
+        RoutineReadCache readCache,
+        PlatformTransactionManager transactionManager
     ) {
         this.routineRepo = routineRepo;
         this.authService = authService;
+        this.pageSize = pageSize;
+        this.eventPublisher = eventPublisher;
+        this.readCache = readCache;
+        this.transaction = new TransactionTemplate(transactionManager);
     }
 
     // ─── Retrieval ───────────────────────────────────────────────────────────────────
 
     @Override
-    public List<Routine> getAllRoutines() {
-        return routineRepo.findAll();
+    public KeysetPage<Routine> getAllRoutines(String cursor, Integer limit) {
+        int size = pageSize.resolve(limit);
+        PageCursor after = PageCursor.decode(cursor, 2);
+        List<Integer> ids = after == null
+            ? routineRepo.findPageIds(Limit.of(size + 1))
+            : routineRepo.findPageIdsAfter(
+                after.nullableTimestampKey(0),
+                after.intKey(1),
+                Limit.of(size + 1)
+            );
+        return loadPage(ids, size);
     }
 
     @Override
     public Routine getRoutineById(Integer id) {
-        Routine routine = routineRepo
-            .findById(id)
-            .orElseThrow(() ->
-                new EntityNotFoundException("Routine not found with id: " + id)
-            );
+        if (authService.isCurrentUserAdmin()) {
+            return loadRoutine(id);
+        }
+        // Owner reads are served from RoutineReadCache; the cached routine is shared, never modify it.
+        Integer userId = authService.getCurrentUserId();
+        return readCache
+            .routine(userId, id, () -> routineRepo.findByRoutineIdAndUserUserId(id, userId))
+            .orElseThrow(() -> routineNotFound(id));
+    }
 
+    /**
+     * Uncached, for write paths: the result belongs to the current persistence context.
+     */
+    private Routine loadRoutine(Integer id) {
         // Enforce multi-tenant access control on reads too (not just update/delete).
-        // This is important because task endpoints load routines before creating/listing tasks.
-        if (routine.getUser() != null) {
-            authService.verifyOwnershipOrAdmin(routine.getUser().getUserId());
-        }
+        // Ownership is part of the query, so another user's routine reads as not found.
+        Optional<Routine> routine = authService.isCurrentUserAdmin()
+            ? routineRepo.findWithTasksByRoutineId(id)
+            : routineRepo.findByRoutineIdAndUserUserId(
+                id,
+                authService.getCurrentUserId()
+            );
 
-        return routine;
+        return routine.orElseThrow(() -> routineNotFound(id));
+    }
+
+    @Override
+    public Optional<Long> getRoutineVersion(Integer id) {
+        return authService.isCurrentUserAdmin()
+            ? routineRepo.findVersion(id)
+            : routineRepo.findVersionByOwner(id, authService.getCurrentUserId());
     }
 
     @Override
-    public List<Routine> getRoutinesByUserId(Integer userId) {
-        return routineRepo.findByUserUserId(userId);
+    public KeysetPage<Routine> getRoutinesByUserId(
+        Integer userId,
+        String cursor,
+        Integer limit
+    ) {
+        int size = pageSize.resolve(limit);
+        PageCursor after = PageCursor.decode(cursor, 2);
+        List<Integer> ids = after == null
+            ? routineRepo.findPageIdsByUserId(userId, Limit.of(size + 1))
+            : routineRepo.findPageIdsByUserIdAfter(
+                userId,
+                after.nullableTimestampKey(0),
+                after.intKey(1),
+                Limit.of(size + 1)
+            );
+        return loadPage(ids, size);
+    }
+
+    /**
+     * Second step of a routine listing: loads the page's routines with their tasks in one
+     * query and restores the keyset order (the IN lookup does not preserve it).
+     * ids were fetched with size + 1; the extra id only signals that another page exists.
+     */
+    private KeysetPage<Routine> loadPage(List<Integer> ids, int size) {
+        boolean hasMore = ids.size() > size;
+        List<Integer> pageIds = hasMore ? ids.subList(0, size) : ids;
+
+        Map<Integer, Routine> byId = new HashMap<>();
+        for (Routine routine : routineRepo.findWithTasksByRoutineIdIn(pageIds)) {
+            byId.put(routine.getRoutineId(), routine);
+        }
+        List<Routine> routines = new ArrayList<>(pageIds.size());
+        for (Integer id : pageIds) {
+            Routine routine = byId.get(id);
+            if (routine != null) {
+                routines.add(routine);
+            }
+        }
+
+        String nextCursor = null;
+        if (hasMore && !routines.isEmpty()) {
+            Routine last = routines.get(routines.size() - 1);
+            nextCursor = PageCursor.encode(last.getCreatedAt(), last.getRoutineId());
+        }
+        return new KeysetPage<>(routines, nextCursor);
     }
 
     // ─── Create ───────────────────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public Routine addRoutine(Routine routine) {
-        return routineRepo.save(routine);
+        TaskPositionAllocator.assignInitialPositions(routine);
+        boolean activating = Boolean.TRUE.equals(routine.getIsActive()) && routine.getUser() != null;
+        List<Integer> deactivated = activating
+            ? routineRepo.deactivateOthersForUser(routine.getUser().getUserId(), null)
+            : List.of();
+        Routine saved = routineRepo.save(routine);
+        publish(Action.CREATED, saved);
+        if (activating) {
+            publishActivated(saved, deactivated);
+        }
+        return saved;
     }
 
     // ─── Update ───────────────────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public Routine updateRoutine(Integer id, Routine updates) {
-        Routine existingRoutine = getRoutineById(id);
-
-        authService.verifyOwnershipOrAdmin(
-            existingRoutine.getUser().getUserId()
-        );
-
-        applyRoutineUpdates(existingRoutine, updates);
+        // Switching a routine on switches the owner's current one off (uk_routine_active_user)
+        boolean activating = Boolean.TRUE.equals(updates.getIsActive());
+        List<Integer> deactivated = List.of();
+        Routine routine;
+        if (authService.isCurrentUserAdmin()) {
+            // Admin override: unscoped read-modify-write
+            Routine existingRoutine = loadRoutine(id);
+            if (activating && existingRoutine.getUser() != null) {
+                deactivated = routineRepo.deactivateOthersForUser(existingRoutine.getUser().getUserId(), id);
+            }
+            applyRoutineUpdates(existingRoutine, updates);
+            routine = routineRepo.save(existingRoutine);
+        } else {
+            Integer userId = authService.getCurrentUserId();
+            if (activating) {
+                deactivated = routineRepo.deactivateOthersForUser(userId, id);
+            }
+            int updated = routineRepo.updateByIdAndOwner(id, userId, updates);
+            if (updated == 0) {
+                throw routineNotFound(id);
+            }
+            routine = loadRoutine(id);
+        }
 
-        return routineRepo.save(existingRoutine);
+        if (activating) {
+            publishActivated(routine, deactivated);
+        } else {
+            publish(Action.UPDATED, routine);
+        }
+        return routine;
     }
 
     // ─── Delete ───────────────────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public void deleteRoutine(Integer id) {
-        Routine existingRoutine = getRoutineById(id);
+        if (authService.isCurrentUserAdmin()) {
+            // Admin override: unscoped delete
+            Routine routine = loadRoutine(id);
+            publish(Action.DELETED, routine);
+            routineRepo.delete(routine);
+            return;
+        }
 
-        authService.verifyOwnershipOrAdmin(
-            existingRoutine.getUser().getUserId()
+        Integer userId = authService.getCurrentUserId();
+        int deleted = routineRepo.deleteByIdAndOwner(id, userId);
+        if (deleted == 0) {
+            throw routineNotFound(id);
+        }
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.routine(userId, Action.DELETED, id)
         );
-
-        routineRepo.delete(existingRoutine);
     }
 
     // ─── Activate (Single-active enforcement) ───────────────────────────────────────
 
+    /**
+     * Not @Transactional itself: each attempt runs in its own transaction, so an activation
+     * that lost a race (a duplicate on uk_routine_active_user, or a deadlock) can start over.
+     * Inside a caller's transaction there is a single attempt.
+     */
     @Override
-    @Transactional
     public Routine activateRoutine(Integer routineId) {
-        Routine target = getRoutineById(routineId);
+        boolean retryable = !TransactionSynchronizationManager.isActualTransactionActive();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.execute(status -> activateOnce(routineId));
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                if (!retryable || attempt >= ACTIVATION_ATTEMPTS || !backOff(attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        Integer ownerUserId = target.getUser().getUserId();
-        authService.verifyOwnershipOrAdmin(ownerUserId);
+    // Spreads out the retries of activations that lost the same race; false when interrupted.
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, (ACTIVATION_BACKOFF_MILLIS << (attempt - 1)) + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-        // Step 1: deactivate any other active routines for this user
-        routineRepo.deactivateAllActiveForUser(ownerUserId);
+    private Routine activateOnce(Integer routineId) {
+        // The owner comes from the session (or one indexed lookup for admins); the routine
+        // itself is not read before it is written.
+        Integer ownerUserId = authService.isCurrentUserAdmin()
+            ? routineRepo.findOwnerId(routineId).orElseThrow(() -> routineNotFound(routineId))
+            : authService.getCurrentUserId();
 
-        // Step 2: activate the target routine
-        target.setIsActive(true);
-        return routineRepo.save(target);
+        // Step 1: deactivate the owner's active routine, freeing the slot in the index; locking
+        // all of the owner's routines first also waits out any activation still in flight
+        List<Integer> deactivated = routineRepo.deactivateOthersForUser(ownerUserId, routineId);
+
+        // Step 2: activate the target, only if the owner owns it (otherwise everything rolls back)
+        if (routineRepo.activateByIdAndOwner(routineId, ownerUserId) == 0) {
+            throw routineNotFound(routineId);
+        }
+
+        // One event covers the deactivations too: clients know only one routine can be active.
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.activated(ownerUserId, routineId, deactivated)
+        );
+        return routineRepo.findWithTasksByRoutineId(routineId)
+            .orElseThrow(() -> routineNotFound(routineId));
     }
 
     // ─── Utility ───────────────────────────────────────────────────────────────────
 
+    /**
+     * Announces a routine change to its owner; delivered after the surrounding transaction commits.
+     */
+    private void publish(Action action, Routine routine) {
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.routine(
+                routine.getUser() == null ? null : routine.getUser().getUserId(),
+                action,
+                routine.getRoutineId()
+            )
+        );
+    }
+
+    private void publishActivated(Routine routine, List<Integer> deactivated) {
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.activated(
+                routine.getUser() == null ? null : routine.getUser().getUserId(),
+                routine.getRoutineId(),
+                deactivated
+            )
+        );
+    }
+
+    private EntityNotFoundException routineNotFound(Integer id) {
+        return new EntityNotFoundException("Routine not found with id: " + id);
+    }
+
     private void applyRoutineUpdates(Routine existing, Routine updates) {
         if (updates.getName() != null) existing.setName(updates.getName());
         if (updates.getDetailLevel() != null) existing.setDetailLevel(
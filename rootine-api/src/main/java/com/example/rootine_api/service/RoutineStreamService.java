@@ -0,0 +1,114 @@
+package com.example.rootine_api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Relays a routine generation to the browser over server-sent events.
+ *
+ * The completion runs on the bounded openAIExecutor, so the request thread is released as soon
+ * as the emitter is returned. Events, all with JSON data:
+ * - token: {"text": "..."} for every fragment the model produces
+ * - task:  each task object as soon as it is complete in the partial output
+ * - done:  the full routine (or {"raw": "..."} if the output is not valid JSON)
+ * - error: {"message": "..."}; the stream ends after it
+ */
+@Service
+public class RoutineStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutineStreamService.class);
+
+    private final OpenAIService openAIService;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Duration timeout;
+
+    public RoutineStreamService(
+            OpenAIService openAIService,
+            ObjectMapper objectMapper,
+            @Qualifier("openAIExecutor") Executor executor,
+            @Value("${rootine.openai.stream.timeout:120s}") Duration timeout
+    ) {
+        this.openAIService = openAIService;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter stream(String prompt) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean closed = new AtomicBoolean();
+        emitter.onCompletion(() -> closed.set(true));
+        emitter.onTimeout(() -> closed.set(true));
+        emitter.onError(e -> closed.set(true));
+
+        try {
+            executor.execute(() -> relay(prompt, emitter, closed));
+        } catch (RejectedExecutionException e) {
+            sendError(emitter, "Routine generation is busy, please retry shortly");
+        }
+        return emitter;
+    }
+
+    private void relay(String prompt, SseEmitter emitter, AtomicBoolean closed) {
+        RoutineTaskExtractor extractor = new RoutineTaskExtractor(objectMapper);
+        try {
+            String routine = openAIService.streamRoutine(prompt, delta -> {
+                if (closed.get()) {
+                    // Client is gone: abort, which also closes the upstream completion.
+                    throw new CancellationException("SSE client disconnected");
+                }
+                send(emitter, "token", Map.of("text", delta));
+                for (JsonNode task : extractor.feed(delta)) {
+                    send(emitter, "task", task);
+                }
+            });
+            send(emitter, "done", parseOrRaw(routine));
+            emitter.complete();
+        } catch (CancellationException e) {
+            log.debug("Routine stream cancelled: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Routine stream failed", e);
+            sendError(emitter, "Routine generation failed");
+        }
+    }
+
+    private Object parseOrRaw(String routine) {
+        try {
+            return objectMapper.readTree(routine);
+        } catch (IOException e) {
+            return Map.of("raw", routine);
+        }
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            throw new CancellationException("SSE client disconnected");
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(Map.of("message", message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+}
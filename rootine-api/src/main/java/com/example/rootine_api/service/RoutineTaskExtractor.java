@@ -0,0 +1,88 @@
+package com.example.rootine_api.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls completed task objects out of a routine JSON document while it is still being generated.
+ *
+ * Fragments are fed to Jackson's non-blocking parser as they arrive; every object that closes
+ * inside the root "tasks" array is returned from the feed call that completed it.
+ * If the model's output stops being valid JSON, extraction stops quietly (the raw text is still relayed).
+ * Not thread-safe: one instance per completion.
+ */
+public class RoutineTaskExtractor {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private TokenBuffer currentTask;
+    private int depth;
+    private boolean failed;
+
+    public RoutineTaskExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create non-blocking JSON parser", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    public List<JsonNode> feed(String fragment) {
+        List<JsonNode> tasks = new ArrayList<>();
+        if (failed || fragment.isEmpty()) {
+            return tasks;
+        }
+        try {
+            byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (currentTask != null) {
+                    currentTask.copyCurrentEvent(parser);
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else if (token.isStructEnd() && --depth == 0) {
+                        tasks.add(objectMapper.readTree(currentTask.asParser(objectMapper)));
+                        currentTask = null;
+                    }
+                } else if (token == JsonToken.START_OBJECT && isTaskSlot(parser.getParsingContext())) {
+                    currentTask = new TokenBuffer(objectMapper, false);
+                    currentTask.copyCurrentEvent(parser);
+                    depth = 1;
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+            currentTask = null;
+        }
+        return tasks;
+    }
+
+    // An object directly inside the "tasks" array of the root object
+    private static boolean isTaskSlot(JsonStreamContext objectContext) {
+        JsonStreamContext array = objectContext.getParent();
+        if (array == null || !array.inArray()) {
+            return false;
+        }
+        JsonStreamContext routine = array.getParent();
+        return routine != null
+                && routine.inObject()
+                && "tasks".equals(routine.getCurrentName())
+                && routine.getParent() != null
+                && routine.getParent().inRoot();
+    }
+}
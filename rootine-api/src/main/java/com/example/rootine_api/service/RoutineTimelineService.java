@@ -0,0 +1,11 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineTimeline;
+
+public interface RoutineTimelineService {
+
+    /**
+     * The user's active routine as a timeline; not found when no routine is active.
+     */
+    RoutineTimeline getActiveTimeline(Integer userId);
+}
@@ -0,0 +1,116 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineTimeline;
+import com.example.rootine_api.dto.RoutineTimeline.Gap;
+import com.example.rootine_api.dto.RoutineTimeline.Overlap;
+import com.example.rootine_api.dto.RoutineTimeline.Slot;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.repository.RoutineRepo;
+import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+@Service
+public class RoutineTimelineServiceImpl implements RoutineTimelineService {
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final RoutineRepo routineRepo;
+    private final RoutineReadCache readCache;
+
+    public RoutineTimelineServiceImpl(RoutineRepo routineRepo, RoutineReadCache readCache) {
+        this.routineRepo = routineRepo;
+        this.readCache = readCache;
+    }
+
+    @Override
+    public RoutineTimeline getActiveTimeline(Integer userId) {
+        // Laid out once per change of the active routine; every other call is a cache read.
+        return readCache
+            .timeline(userId, () -> routineRepo.findWithTasksByUserUserIdAndIsActiveTrue(userId)
+                .map(RoutineTimelineServiceImpl::layOut))
+            .orElseThrow(() -> new EntityNotFoundException("No active routine for user: " + userId));
+    }
+
+    /**
+     * One pass over the tasks sorted by start: a gap wherever a task starts after everything
+     * before it has ended, an overlap with each earlier task still running when it starts.
+     */
+    static RoutineTimeline layOut(Routine routine) {
+        // Tasks come in routine order (position, taskId); the stable sort keeps it for equal starts.
+        List<Task> scheduled = new ArrayList<>();
+        List<Slot> unscheduled = new ArrayList<>();
+        for (Task task : routine.getTasks()) {
+            if (task.getStartTime() == null) {
+                unscheduled.add(Slot.of(task, null, false));
+            } else {
+                scheduled.add(task);
+            }
+        }
+        scheduled.sort(Comparator.comparing(Task::getStartTime));
+
+        List<Slot> slots = new ArrayList<>(scheduled.size());
+        List<Gap> gaps = new ArrayList<>();
+        List<Overlap> overlaps = new ArrayList<>();
+        List<Task> running = new ArrayList<>();
+        int coveredUntil = -1;
+        for (Task task : scheduled) {
+            int start = start(task);
+            int end = end(task);
+            slots.add(Slot.of(task, time(end), end >= SECONDS_PER_DAY));
+
+            if (coveredUntil >= 0 && start > coveredUntil) {
+                gaps.add(new Gap(time(coveredUntil), time(start), minutes(start - coveredUntil)));
+            }
+            coveredUntil = Math.max(coveredUntil, end);
+
+            running.removeIf(earlier -> end(earlier) <= start);
+            for (Task earlier : running) {
+                int overlapEnd = Math.min(end, end(earlier));
+                if (overlapEnd > start) {
+                    overlaps.add(new Overlap(
+                        earlier.getTaskId(),
+                        task.getTaskId(),
+                        time(start),
+                        time(overlapEnd),
+                        minutes(overlapEnd - start)
+                    ));
+                }
+            }
+            if (end > start) {
+                running.add(task);
+            }
+        }
+
+        return new RoutineTimeline(
+            routine.getRoutineId(),
+            routine.getName(),
+            List.copyOf(slots),
+            List.copyOf(gaps),
+            List.copyOf(overlaps),
+            List.copyOf(unscheduled)
+        );
+    }
+
+    // Seconds since midnight; an end past midnight keeps counting into the next day.
+    private static int start(Task task) {
+        return task.getStartTime().toSecondOfDay();
+    }
+
+    private static int end(Task task) {
+        int duration = task.getDuration() == null ? 0 : Math.max(task.getDuration(), 0);
+        return start(task) + duration * 60;
+    }
+
+    private static LocalTime time(int seconds) {
+        return LocalTime.ofSecondOfDay(seconds % SECONDS_PER_DAY);
+    }
+
+    private static int minutes(int seconds) {
+        return seconds / 60;
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.rootine_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds previously generated routines for prompts that are worded differently but say the same thing.
+ *
+ * Each normalized prompt is reduced to a MinHash signature over its character trigrams; signatures
+ * are bucketed by LSH bands, so a lookup only compares against prompts that share a band.
+ * A candidate is reused when the estimated Jaccard similarity reaches rootine.openai.similarity.threshold
+ * and both prompts carry the same numbers and times ("6am", "30 minute"): one changed digit barely moves
+ * the trigrams but asks for a different routine.
+ *
+ * In memory and bounded (oldest entries go first). Snapshotted to rootine.openai.similarity.snapshot-path
+ * periodically and on shutdown, and reloaded on start; entries from another model or generation version
+ * (output mode, instructions, schema) are dropped.
+ * Lookups are counted as "openai.routine.similar" (result=reused|missed).
+ */
+@Component
+public class SimilarRoutineIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarRoutineIndex.class);
+
+    private static final int HASHES = 128;
+    private static final int BANDS = 32;
+    private static final int ROWS = HASHES / BANDS;
+
+    // Fixed seeds: signatures must not change between runs.
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(HASHES).toArray();
+
+    // On normalized prompts: "6am" and "6 am" are the same time, "7:30" has become "7 30".
+    private static final Pattern QUANTITY = Pattern.compile("\\d+(?: ?[ap]m\\b)?");
+
+    private final ObjectMapper objectMapper;
+    private final double threshold;
+    private final int maxEntries;
+    private final Path snapshotPath;
+    private final String version;
+    private final Counter reused;
+    private final Counter missed;
+
+    // Keyed by normalized prompt, in insertion order for eviction.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, Set<String>> buckets = new HashMap<>();
+    private boolean dirty;
+
+    public SimilarRoutineIndex(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${rootine.openai.similarity.threshold:0.8}") double threshold,
+            @Value("${rootine.openai.similarity.max-entries:10000}") int maxEntries,
+            @Value("${rootine.openai.similarity.snapshot-path:}") String snapshotPath,
+            @Value("${rootine.openai.structured-output:true}") boolean structuredOutput
+    ) {
+        this.objectMapper = objectMapper;
+        this.threshold = threshold;
+        this.maxEntries = maxEntries;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.version = OpenAIServiceImpl.MODEL.asString() + '/' + OpenAIServiceImpl.generationVersion(structuredOutput);
+        this.reused = Counter.builder("openai.routine.similar").tag("result", "reused").register(meterRegistry);
+        this.missed = Counter.builder("openai.routine.similar").tag("result", "missed").register(meterRegistry);
+    }
+
+    /**
+     * The response stored for the most similar earlier prompt, or null when none is close enough.
+     */
+    public String findSimilar(String prompt) {
+        String normalized = CachingOpenAIService.normalize(prompt);
+        int[] signature = signature(normalized);
+        List<String> quantities = quantities(normalized);
+
+        String best = null;
+        int bestMatches = (int) Math.ceil(threshold * HASHES) - 1;
+        synchronized (this) {
+            Set<String> candidates = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                candidates.addAll(buckets.getOrDefault(bandKey(signature, band), Set.of()));
+            }
+            for (String candidate : candidates) {
+                Entry entry = entries.get(candidate);
+                if (!entry.quantities.equals(quantities)) {
+                    continue;
+                }
+                int matches = matches(signature, entry.signature);
+                if (matches > bestMatches) {
+                    best = entry.response;
+                    bestMatches = matches;
+                }
+            }
+        }
+
+        (best != null ? reused : missed).increment();
+        return best;
+    }
+
+    /**
+     * Records a generated routine for its prompt. Only pass responses worth reusing.
+     */
+    public synchronized void add(String prompt, String response) {
+        String normalized = CachingOpenAIService.normalize(prompt);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        remove(normalized);
+        Entry entry = new Entry(signature(normalized), quantities(normalized), response);
+        entries.put(normalized, entry);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(entry.signature, band), key -> new HashSet<>()).add(normalized);
+        }
+
+        Iterator<Map.Entry<String, Entry>> oldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            Map.Entry<String, Entry> evicted = oldest.next();
+            oldest.remove();
+            unbucket(evicted.getKey(), evicted.getValue().signature());
+        }
+        dirty = true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // ─── Snapshots ────────────────────────────────────────────────────────────────
+
+    @PostConstruct
+    public void load() {
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return;
+        }
+        try {
+            Snapshot snapshot = objectMapper.readValue(snapshotPath.toFile(), Snapshot.class);
+            if (!version.equals(snapshot.version)) {
+                log.info("Ignoring routine similarity snapshot from another model/generation version");
+                return;
+            }
+            for (SnapshotEntry entry : snapshot.entries) {
+                add(entry.prompt, entry.response);
+            }
+            synchronized (this) {
+                dirty = false;
+            }
+            log.info("Loaded {} generated routines into the similarity index", size());
+        } catch (IOException e) {
+            log.warn("Could not read routine similarity snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(
+            fixedDelayString = "${rootine.openai.similarity.snapshot-interval:5m}",
+            initialDelayString = "${rootine.openai.similarity.snapshot-interval:5m}"
+    )
+    public void snapshot() {
+        if (snapshotPath == null) {
+            return;
+        }
+        Snapshot snapshot = new Snapshot();
+        snapshot.version = version;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            entries.forEach((prompt, entry) -> snapshot.entries.add(new SnapshotEntry(prompt, entry.response)));
+            dirty = false;
+        }
+
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            // Written aside and moved into place, so a crash mid-write never leaves a truncated snapshot.
+            Path temp = Files.createTempFile(parent, "similar-routines", ".tmp");
+            objectMapper.writeValue(temp.toFile(), snapshot);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            log.warn("Could not write routine similarity snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    // ─── MinHash / LSH ────────────────────────────────────────────────────────────
+
+    static int[] signature(String normalized) {
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String gram : TemplateRoutineGenerator.grams(normalized)) {
+            int hash = gram.hashCode();
+            for (int i = 0; i < HASHES; i++) {
+                int value = mix(hash ^ SEEDS[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // Sorted, so the same numbers in another order still match.
+    static List<String> quantities(String normalized) {
+        List<String> quantities = new ArrayList<>();
+        Matcher matcher = QUANTITY.matcher(normalized);
+        while (matcher.find()) {
+            quantities.add(matcher.group().replace(" ", ""));
+        }
+        quantities.sort(null);
+        return quantities;
+    }
+
+    private static int mix(long value) {
+        // Stafford variant 13 finalizer (as in SplittableRandom): a cheap, well-spread hash per seed.
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return (int) (value ^ (value >>> 31));
+    }
+
+    private static int matches(int[] a, int[] b) {
+        int matches = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        int hash = 1;
+        for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+            hash = 31 * hash + signature[row];
+        }
+        return ((long) band << 32) | (hash & 0xffffffffL);
+    }
+
+    private void remove(String normalized) {
+        Entry previous = entries.remove(normalized);
+        if (previous != null) {
+            unbucket(normalized, previous.signature);
+        }
+    }
+
+    private void unbucket(String normalized, int[] signature) {
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            Set<String> bucket = buckets.get(key);
+            if (bucket != null && bucket.remove(normalized) && bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    private record Entry(int[] signature, List<String> quantities, String response) {
+    }
+
+    static class Snapshot {
+        public String version;
+        public List<SnapshotEntry> entries = new ArrayList<>();
+    }
+
+    static class SnapshotEntry {
+        public String prompt;
+        public String response;
+
+        SnapshotEntry() {
+        }
+
+        SnapshotEntry(String prompt, String response) {
+            this.prompt = prompt;
+            this.response = response;
+        }
+    }
+}
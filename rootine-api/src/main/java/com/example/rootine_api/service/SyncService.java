@@ -0,0 +1,11 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.SyncChanges;
+
+public interface SyncService {
+
+    /**
+     * The user's routine/task changes after the given version, or everything when since is null.
+     */
+    SyncChanges getChanges(Integer userId, Long since);
+}
@@ -0,0 +1,67 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.SyncChanges;
+import com.example.rootine_api.dto.SyncChanges.Deletion;
+import com.example.rootine_api.dto.SyncChanges.RoutineChange;
+import com.example.rootine_api.dto.SyncChanges.TaskChange;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.SyncTombstoneRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    private final UserRepo userRepo;
+    private final RoutineRepo routineRepo;
+    private final TaskRepo taskRepo;
+    private final SyncTombstoneRepo tombstoneRepo;
+
+    public SyncServiceImpl(
+        UserRepo userRepo,
+        RoutineRepo routineRepo,
+        TaskRepo taskRepo,
+        SyncTombstoneRepo tombstoneRepo
+    ) {
+        this.userRepo = userRepo;
+        this.routineRepo = routineRepo;
+        this.taskRepo = taskRepo;
+        this.tombstoneRepo = tombstoneRepo;
+    }
+
+    @Override
+    @Transactional
+    public SyncChanges getChanges(Integer userId, Long since) {
+        if (since != null && since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+
+        // Read the version before the rows: a change committing in between is then returned
+        // now and again next time, instead of being skipped.
+        long version = userRepo.findSyncVersion(userId);
+
+        if (since == null || since == 0) {
+            return new SyncChanges(
+                version,
+                true,
+                routineRepo.findByUserUserId(userId).stream().map(RoutineChange::of).toList(),
+                taskRepo.findByOwner(userId).stream().map(TaskChange::of).toList(),
+                List.of()
+            );
+        }
+
+        return new SyncChanges(
+            version,
+            false,
+            routineRepo.findByUserUserIdAndSyncVersionGreaterThan(userId, since)
+                .stream().map(RoutineChange::of).toList(),
+            taskRepo.findByOwnerChangedAfter(userId, since)
+                .stream().map(TaskChange::of).toList(),
+            tombstoneRepo.findByUserUserIdAndSyncVersionGreaterThan(userId, since)
+                .stream().map(Deletion::of).toList()
+        );
+    }
+}
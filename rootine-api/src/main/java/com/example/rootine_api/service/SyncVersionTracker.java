@@ -0,0 +1,128 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.model.SyncTombstone;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.SyncTombstoneRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Maintains the change versions behind delta sync (GET /sync).
+ *
+ * Each user has a counter (User.syncVersion). Every committed change takes the next value and
+ * stamps it on the rows it touched; deletions leave a SyncTombstone with that value instead.
+ * A client holding version N then only needs rows stamped after N.
+ *
+ * Routine stamps also bump Routine.version, the content version behind routine ETags; task changes
+ * bump it without stamping the routine row for sync.
+ *
+ * Driven by the same RoutineChangeEvents as the WebSocket push, but just before commit, so the
+ * stamp commits atomically with the change. The counter row stays locked from that point until
+ * commit, which keeps a user's versions committing in order and only for that short window.
+ * Routine rows are always locked before the counter row (routine stamps lock their rows first,
+ * task changes bump the routine first, deleted rows are locked by the delete), so concurrent
+ * changes by the same user cannot deadlock on the pair.
+ */
+@Component
+public class SyncVersionTracker {
+
+    private final UserRepo userRepo;
+    private final RoutineRepo routineRepo;
+    private final TaskRepo taskRepo;
+    private final SyncTombstoneRepo tombstoneRepo;
+
+    public SyncVersionTracker(
+        UserRepo userRepo,
+        RoutineRepo routineRepo,
+        TaskRepo taskRepo,
+        SyncTombstoneRepo tombstoneRepo
+    ) {
+        this.userRepo = userRepo;
+        this.routineRepo = routineRepo;
+        this.taskRepo = taskRepo;
+        this.tombstoneRepo = tombstoneRepo;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    @Transactional
+    public void onChange(RoutineChangeEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+
+        switch (event.entity()) {
+            case ROUTINE -> {
+                switch (event.action()) {
+                    case CREATED -> routinesCreated(event.userId(), List.of(event.routineId()));
+                    case ACTIVATED -> stampRoutines(event.userId(), switched(event));
+                    case DELETED -> tombstone(event);
+                    default -> stampRoutines(event.userId(), List.of(event.routineId()));
+                }
+            }
+            case TASK -> {
+                routineRepo.bumpVersion(event.routineId());
+                switch (event.action()) {
+                    case REORDERED -> taskRepo.stampSyncVersionForRoutines(
+                        List.of(event.routineId()),
+                        nextVersion(event.userId())
+                    );
+                    case DELETED -> tombstone(event);
+                    default -> taskRepo.stampSyncVersion(event.taskId(), nextVersion(event.userId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stamps newly created routines and their tasks with one version.
+     * For bulk paths that do not publish an event per routine (imports).
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void routinesCreated(Integer userId, Collection<Integer> routineIds) {
+        if (routineIds.isEmpty()) {
+            return;
+        }
+        long version = stampRoutines(userId, routineIds);
+        taskRepo.stampSyncVersionForRoutines(routineIds, version);
+    }
+
+    // Not all changes write the routine row themselves (a no-op admin update), so it is locked
+    // here before nextVersion takes the counter row.
+    private long stampRoutines(Integer userId, Collection<Integer> routineIds) {
+        routineRepo.lockByIds(routineIds);
+        long version = nextVersion(userId);
+        routineRepo.stampSyncVersion(routineIds, version);
+        return version;
+    }
+
+    // The activated routine and whichever routine it switched off; the user's others are unchanged.
+    private static List<Integer> switched(RoutineChangeEvent event) {
+        List<Integer> switched = new ArrayList<>(event.deactivatedRoutineIds());
+        switched.add(event.routineId());
+        return switched;
+    }
+
+    private void tombstone(RoutineChangeEvent event) {
+        Integer entityId = event.entity() == RoutineChangeEvent.Entity.TASK ? event.taskId() : event.routineId();
+        tombstoneRepo.save(new SyncTombstone(
+            userRepo.getReferenceById(event.userId()),
+            event.entity(),
+            entityId,
+            event.routineId(),
+            nextVersion(event.userId())
+        ));
+    }
+
+    private long nextVersion(Integer userId) {
+        userRepo.incrementSyncVersion(userId);
+        return userRepo.findSyncVersion(userId);
+    }
+}
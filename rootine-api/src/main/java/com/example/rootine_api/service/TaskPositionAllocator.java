@@ -0,0 +1,112 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Owns the sparse rank scheme for Task.position.
+ *
+ * Positions are spaced POSITION_GAP apart, so moving a task between two neighbours
+ * takes the midpoint and updates a single row. Only when two neighbours end up
+ * adjacent (no integer left between them) is the routine renumbered, in one statement.
+ *
+ * Appends come from a per-routine counter column: O(1) regardless of routine size,
+ * and concurrent appends to the same routine get distinct positions because the
+ * counter row stays locked until the surrounding transaction commits.
+ */
+@Component
+public class TaskPositionAllocator {
+
+    public static final int POSITION_GAP = 1024;
+
+    private final RoutineRepo routineRepo;
+    private final TaskRepo taskRepo;
+
+    public TaskPositionAllocator(RoutineRepo routineRepo, TaskRepo taskRepo) {
+        this.routineRepo = routineRepo;
+        this.taskRepo = taskRepo;
+    }
+
+    /**
+     * Reserves the next position at the end of the routine.
+     * Must join the caller's transaction so the lock covers the task insert.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public int nextAppendPosition(Integer routineId) {
+        if (routineRepo.reserveTaskPosition(routineId, POSITION_GAP) == 0) {
+            throw new EntityNotFoundException(
+                "Routine not found with id: " + routineId
+            );
+        }
+        return routineRepo.findNextTaskPosition(routineId) - POSITION_GAP;
+    }
+
+    /**
+     * For a new routine created with nested tasks: tasks without a position are appended
+     * in request order (sparse ranks), and the append counter starts right after the last one.
+     * Needs no database access, so bulk paths can call it before batching inserts.
+     */
+    public static void assignInitialPositions(Routine routine) {
+        int next = 0;
+        if (routine.getTasks() != null) {
+            for (Task task : routine.getTasks()) {
+                if (task != null && task.getPosition() != null) {
+                    next = Math.max(next, task.getPosition() + POSITION_GAP);
+                }
+            }
+            for (Task task : routine.getTasks()) {
+                if (task != null && task.getPosition() == null) {
+                    task.setPosition(next);
+                    next += POSITION_GAP;
+                }
+            }
+        }
+        routine.setNextTaskPosition(next);
+    }
+
+    /**
+     * Midpoint between two neighbouring positions,
+     * or null when no integer is left between them and the routine needs rebalancing first.
+     */
+    public Integer positionBetween(int lower, int upper) {
+        if ((long) upper - lower < 2) {
+            return null;
+        }
+        return lower + (upper - lower) / 2;
+    }
+
+    /**
+     * Position in front of the current first task.
+     */
+    public int positionBefore(int first) {
+        return first - POSITION_GAP;
+    }
+
+    /**
+     * Writes the given order as evenly spaced positions with one set-based UPDATE,
+     * and keeps the append counter past the last one.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void applyOrder(Integer routineId, List<Integer> orderedTaskIds) {
+        taskRepo.updatePositions(routineId, orderedTaskIds, POSITION_GAP);
+        routineRepo.advanceNextTaskPosition(
+            routineId,
+            orderedTaskIds.size() * POSITION_GAP
+        );
+    }
+
+    /**
+     * Renumbers the routine in its current order, restoring full gaps between all tasks.
+     * Only needed when a move finds no room between its neighbours.
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void rebalance(Integer routineId) {
+        applyOrder(routineId, taskRepo.findTaskIdsByRoutineId(routineId));
+    }
+}
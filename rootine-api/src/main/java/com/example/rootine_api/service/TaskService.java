@@ -1,25 +1,35 @@
 package com.example.rootine_api.service;
 
 import com.example.rootine_api.model.Task;
+import com.example.rootine_api.pagination.KeysetPage;
 import java.util.List;
 
 public interface TaskService {
-    List<Task> getAllTasks();
+    KeysetPage<Task> getAllTasks(String cursor, Integer limit);
     Task getTaskById(Integer id);
-    Task addTask(Task task);
+    Task addTask(Integer routineId, Task task);
     Task updateTask(Integer id, Task task);
     void deleteTask(Integer id);
-    List<Task> getTasksByRoutineId(Integer routineId);
+    KeysetPage<Task> getTasksByRoutineId(Integer routineId, String cursor, Integer limit);
 
     /**
      * Bulk reorder tasks within a routine.
-     * The first task id gets position 0, next gets 1, etc.
+     * The first task id gets position 0, next gets POSITION_GAP, etc.
      *
      * Implementation should:
      * - validate the routine exists
      * - enforce ownership (owner/admin)
      * - ensure all taskIds belong to the routine
-     * - update positions transactionally
+     * - update positions transactionally, in a single set-based statement
      */
     void reorderTasks(Integer routineId, List<Integer> orderedTaskIds);
+
+    /**
+     * Move one task directly before or after another task of the same routine.
+     * Exactly one of beforeTaskId / afterTaskId must be given.
+     *
+     * Takes the midpoint between the new neighbours, so only the moved task's row
+     * is written unless the gap is exhausted and the routine must be rebalanced.
+     */
+    Task moveTask(Integer id, Integer beforeTaskId, Integer afterTaskId);
 }
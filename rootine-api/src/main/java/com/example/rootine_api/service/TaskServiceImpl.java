@@ -1,105 +1,176 @@
 package com.example.rootine_api.service;
 
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.dto.RoutineChangeEvent.Action;
+import com.example.rootine_api.model.Routine;
 import com.example.rootine_api.model.Task;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.pagination.PageCursor;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.RoutineRepo;
 import com.example.rootine_api.repository.TaskRepo;
 import com.example.rootine_api.security.AuthService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepo taskRepo;
+    private final RoutineRepo routineRepo;
     private final AuthService authService;
-
-    public TaskServiceImpl(TaskRepo taskRepo, AuthService authService) {
+    private final TaskPositionAllocator taskPositionAllocator;
+    private final PageSize pageSize;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RoutineReadCache readCache;
+
+    public TaskServiceImpl(
+        TaskRepo taskRepo,
+        RoutineRepo routineRepo,
+        AuthService authService,
+        TaskPositionAllocator taskPositionAllocator,
+        PageSize pageSize,
+        ApplicationEventPublisher eventPublisher,
+        RoutineReadCache readCache
+    ) {
         this.taskRepo = taskRepo;
+        this.routineRepo = routineRepo;
         this.authService = authService;
+        this.taskPositionAllocator = taskPositionAllocator;
+        this.pageSize = pageSize;
+        this.eventPublisher = eventPublisher;
+        this.readCache = readCache;
     }
 
     // ─── Retrieval ───────────────────────────────────────────────────────────────
 
     @Override
-    public List<Task> getAllTasks() {
-        return taskRepo.findAll();
+    public KeysetPage<Task> getAllTasks(String cursor, Integer limit) {
+        int size = pageSize.resolve(limit);
+        PageCursor after = PageCursor.decode(cursor, 1);
+        List<Task> tasks = after == null
+            ? taskRepo.findByOrderByTaskIdAsc(Limit.of(size + 1))
+            : taskRepo.findByTaskIdGreaterThanOrderByTaskIdAsc(
+                after.intKey(0),
+                Limit.of(size + 1)
+            );
+        return KeysetPage.of(tasks, size, task ->
+            PageCursor.encode(task.getTaskId())
+        );
     }
 
     @Override
     public Task getTaskById(Integer id) {
-        Task task = taskRepo
-            .findById(id)
-            .orElseThrow(() ->
-                new EntityNotFoundException("Task not found with id: " + id)
-            );
-
-        // Enforce ownership on reads too (prevents cross-tenant access)
-        if (task.getRoutine() == null || task.getRoutine().getUser() == null) {
-            throw new AccessDeniedException(
-                "Task is missing routine/user association."
-            );
+        if (authService.isCurrentUserAdmin()) {
+            return loadTask(id);
         }
-        authService.verifyOwnershipOrAdmin(
-            task.getRoutine().getUser().getUserId()
-        );
+        // Owner reads are served from RoutineReadCache; the cached task is shared, never modify it.
+        Integer userId = authService.getCurrentUserId();
+        return readCache
+            .task(userId, id, () -> taskRepo.findByIdAndOwner(id, userId))
+            .orElseThrow(() -> taskNotFound(id));
+    }
 
-        return task;
+    /**
+     * Uncached, for write paths: the result belongs to the current persistence context.
+     */
+    private Task loadTask(Integer id) {
+        // Enforce ownership on reads too (prevents cross-tenant access).
+        // Ownership is part of the query, so another user's task reads as not found.
+        Optional<Task> task = authService.isCurrentUserAdmin()
+            ? taskRepo.findById(id)
+            : taskRepo.findByIdAndOwner(id, authService.getCurrentUserId());
+
+        return task.orElseThrow(() -> taskNotFound(id));
     }
 
     @Override
-    public List<Task> getTasksByRoutineId(Integer routineId) {
+    public KeysetPage<Task> getTasksByRoutineId(
+        Integer routineId,
+        String cursor,
+        Integer limit
+    ) {
         // stable ordering: position asc, then taskId asc
-        List<Task> tasks =
-            taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(
-                routineId
-            );
+        int size = pageSize.resolve(limit);
+        PageCursor after = PageCursor.decode(cursor, 2);
+        Limit rows = Limit.of(size + 1);
+
+        if (authService.isCurrentUserAdmin()) {
+            List<Task> tasks = after == null
+                ? taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(
+                    routineId,
+                    rows
+                )
+                : taskRepo.findPageByRoutineIdAfter(
+                    routineId,
+                    after.nullableIntKey(0),
+                    after.intKey(1),
+                    rows
+                );
+            return taskPage(tasks, size);
+        }
 
-        // Enforce ownership on reads too
-        if (!tasks.isEmpty()) {
-            Task any = tasks.get(0);
+        // Owner reads are served from RoutineReadCache (an unmodifiable list, shared between requests).
+        Integer userId = authService.getCurrentUserId();
+        return readCache.routineTasks(userId, routineId, cursor, size, () -> {
+            List<Task> owned = after == null
+                ? taskRepo.findByRoutineIdAndOwner(routineId, userId, rows)
+                : taskRepo.findPageByRoutineIdAndOwnerAfter(
+                    routineId,
+                    userId,
+                    after.nullableIntKey(0),
+                    after.intKey(1),
+                    rows
+                );
+
+            // An empty result is either an empty routine or one the caller can't see;
+            // only that (rare) case needs the extra existence check.
             if (
-                any.getRoutine() == null || any.getRoutine().getUser() == null
+                owned.isEmpty() &&
+                !routineRepo.existsByRoutineIdAndUserUserId(routineId, userId)
             ) {
-                throw new AccessDeniedException(
-                    "Tasks are missing routine/user association."
-                );
+                throw routineNotFound(routineId);
             }
-            authService.verifyOwnershipOrAdmin(
-                any.getRoutine().getUser().getUserId()
-            );
-        }
+            return taskPage(owned, size);
+        });
+    }
 
-        return tasks;
+    private static KeysetPage<Task> taskPage(List<Task> rows, int size) {
+        return KeysetPage.of(rows, size, task ->
+            PageCursor.encode(task.getPosition(), task.getTaskId())
+        );
     }
 
     // ─── Create ────────────────────────────────────────────────────────
 
     @Override
-    public Task addTask(Task task) {
-        // Ownership is enforced in controller by loading the routine; still validate association exists here.
-        if (
-            task.getRoutine() == null ||
-            task.getRoutine().getRoutineId() == null
-        ) {
+    @Transactional
+    public Task addTask(Integer routineId, Task task) {
+        if (routineId == null) {
             throw new IllegalArgumentException(
                 "Task must belong to a routine."
             );
         }
 
+        task.setRoutine(getAccessibleRoutineReference(routineId));
+
         // If client doesn't provide a position, place it at the end of the routine.
         if (task.getPosition() == null) {
-            Integer routineId = task.getRoutine().getRoutineId();
-            int nextPosition = getTasksByRoutineId(routineId).size();
-            task.setPosition(nextPosition);
+            task.setPosition(
+                taskPositionAllocator.nextAppendPosition(routineId)
+            );
         }
 
-        return taskRepo.save(task);
+        Task saved = taskRepo.save(task);
+        publish(Action.CREATED, saved);
+        return saved;
     }
 
     // ─── Reorder (Bulk) ───────────────────────────────────────────────────────────
@@ -124,21 +195,23 @@ public class TaskServiceImpl implements TaskService {
             );
         }
 
-        // Fetch tasks belonging to the routine, then validate membership.
-        // NOTE: This also performs an ownership check.
-        List<Task> tasksInRoutine = getTasksByRoutineId(routineId);
+        // Fetch the routine's task ids (no entities), then validate membership.
+        // NOTE: This is owner-scoped, so it also performs the ownership check.
+        Set<Integer> taskIdsInRoutine = new HashSet<>(
+            authService.isCurrentUserAdmin()
+                ? taskRepo.findTaskIdsByRoutineId(routineId)
+                : taskRepo.findTaskIdsByRoutineIdAndOwner(
+                    routineId,
+                    authService.getCurrentUserId()
+                )
+        );
 
-        if (tasksInRoutine.isEmpty()) {
+        if (taskIdsInRoutine.isEmpty()) {
             throw new EntityNotFoundException(
                 "No tasks found for routine id: " + routineId
             );
         }
 
-        Set<Integer> taskIdsInRoutine = new HashSet<>();
-        for (Task t : tasksInRoutine) {
-            taskIdsInRoutine.add(t.getTaskId());
-        }
-
         // Request must be a permutation of the routine's task ids
         if (!taskIdsInRoutine.equals(unique)) {
             throw new IllegalArgumentException(
@@ -146,61 +219,207 @@ public class TaskServiceImpl implements TaskService {
             );
         }
 
-        // O(n): index tasks by id for fast lookup
-        Map<Integer, Task> byId = new HashMap<>();
-        for (Task t : tasksInRoutine) {
-            byId.put(t.getTaskId(), t);
+        // Single set-based UPDATE ... CASE instead of one UPDATE per task
+        taskPositionAllocator.applyOrder(routineId, orderedTaskIds);
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.task(
+                ownerId(routineRepo.getReferenceById(routineId)),
+                Action.REORDERED,
+                routineId,
+                null
+            )
+        );
+    }
+
+    // ─── Move (Single task) ───────────────────────────────────────────────────────
+
+    @Override
+    @Transactional
+    public Task moveTask(Integer id, Integer beforeTaskId, Integer afterTaskId) {
+        if ((beforeTaskId == null) == (afterTaskId == null)) {
+            throw new IllegalArgumentException(
+                "Exactly one of beforeTaskId or afterTaskId is required"
+            );
+        }
+        boolean before = beforeTaskId != null;
+        Integer anchorId = before ? beforeTaskId : afterTaskId;
+        if (anchorId.equals(id)) {
+            throw new IllegalArgumentException(
+                "A task cannot be moved relative to itself"
+            );
         }
 
-        // Apply new positions
-        for (int i = 0; i < orderedTaskIds.size(); i++) {
-            Integer taskId = orderedTaskIds.get(i);
-            Task t = byId.get(taskId);
-            if (t == null) {
-                // Should be impossible because of the set equality check above, but keep it explicit.
-                throw new IllegalArgumentException(
-                    "Task id " +
-                        taskId +
-                        " does not belong to routine " +
-                        routineId
-                );
+        Task task = loadTask(id);
+        Task anchor = loadTask(anchorId);
+        Integer routineId = task.getRoutine().getRoutineId();
+        if (!routineId.equals(anchor.getRoutine().getRoutineId())) {
+            throw new IllegalArgumentException(
+                "Tasks must belong to the same routine"
+            );
+        }
+
+        Integer position = positionNextTo(id, anchor, before);
+        boolean rebalanced = position == null;
+        if (rebalanced) {
+            // Gaps ran out around the anchor: renumber once, after which a midpoint always exists.
+            taskPositionAllocator.rebalance(routineId);
+            task = loadTask(id);
+            anchor = loadTask(anchorId);
+            position = positionNextTo(id, anchor, before);
+        }
+
+        // Common case: this is the only row written.
+        task.setPosition(position);
+        Task saved = taskRepo.save(task);
+        // After a rebalance every task in the routine has a new position.
+        publish(rebalanced ? Action.REORDERED : Action.MOVED, saved);
+        return saved;
+    }
+
+    /**
+     * New position for the moved task directly before/after the anchor,
+     * or null when the routine has to be rebalanced first.
+     */
+    private Integer positionNextTo(Integer movedTaskId, Task anchor, boolean before) {
+        Integer routineId = anchor.getRoutine().getRoutineId();
+        Integer anchorPosition = anchor.getPosition();
+        if (anchorPosition == null) {
+            return null; // legacy task without a rank
+        }
+
+        if (before) {
+            Optional<Integer> lower = taskRepo.findPositionBefore(
+                routineId,
+                anchorPosition,
+                anchor.getTaskId(),
+                movedTaskId
+            );
+            if (lower.isEmpty()) {
+                return taskPositionAllocator.positionBefore(anchorPosition);
             }
-            t.setPosition(i);
+            return taskPositionAllocator.positionBetween(lower.get(), anchorPosition);
         }
 
-        taskRepo.saveAll(tasksInRoutine);
+        Optional<Integer> upper = taskRepo.findPositionAfter(
+            routineId,
+            anchorPosition,
+            anchor.getTaskId(),
+            movedTaskId
+        );
+        // Moving past the last task is an append, so it comes from the routine's counter.
+        if (upper.isEmpty()) {
+            return taskPositionAllocator.nextAppendPosition(routineId);
+        }
+        return taskPositionAllocator.positionBetween(anchorPosition, upper.get());
     }
 
     // ─── Update ───────────────────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public Task updateTask(Integer id, Task taskUpdates) {
-        Task existingTask = getTaskById(id);
-
-        authService.verifyOwnershipOrAdmin(
-            existingTask.getRoutine().getUser().getUserId()
-        );
-
-        applyTaskUpdates(existingTask, taskUpdates);
+        Task task;
+        if (authService.isCurrentUserAdmin()) {
+            // Admin override: unscoped read-modify-write
+            Task existingTask = loadTask(id);
+            applyTaskUpdates(existingTask, taskUpdates);
+            task = taskRepo.save(existingTask);
+        } else {
+            int updated = taskRepo.updateByIdAndOwner(
+                id,
+                authService.getCurrentUserId(),
+                taskUpdates
+            );
+            if (updated == 0) {
+                throw taskNotFound(id);
+            }
+            task = loadTask(id);
+        }
 
-        return taskRepo.save(existingTask);
+        publish(Action.UPDATED, task);
+        return task;
     }
 
     // ─── Delete ───────────────────────────────────────────────────────────────────
 
     @Override
+    @Transactional
     public void deleteTask(Integer id) {
-        Task existingTask = getTaskById(id);
+        if (authService.isCurrentUserAdmin()) {
+            // Admin override: unscoped delete
+            Task task = loadTask(id);
+            publish(Action.DELETED, task);
+            taskRepo.delete(task);
+            return;
+        }
 
-        authService.verifyOwnershipOrAdmin(
-            existingTask.getRoutine().getUser().getUserId()
+        Integer userId = authService.getCurrentUserId();
+        // The routine id is read first: change listeners need it and the row is gone afterwards.
+        Integer routineId = taskRepo.findRoutineIdByIdAndOwner(id, userId)
+            .orElseThrow(() -> taskNotFound(id));
+        int deleted = taskRepo.deleteByIdAndOwner(id, userId);
+        if (deleted == 0) {
+            throw taskNotFound(id);
+        }
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.task(userId, Action.DELETED, routineId, id)
         );
-
-        taskRepo.deleteById(id);
     }
 
     // ─── Utility ───────────────────────────────────────────────────────────────────
 
+    /**
+     * Announces a task change to its owner; delivered after the surrounding transaction commits.
+     */
+    private void publish(Action action, Task task) {
+        Routine routine = task.getRoutine();
+        eventPublisher.publishEvent(
+            RoutineChangeEvent.task(
+                ownerId(routine),
+                action,
+                routine.getRoutineId(),
+                task.getTaskId()
+            )
+        );
+    }
+
+    /**
+     * Owner of a routine the caller was just allowed to change: the caller itself unless
+     * this is an admin override, in which case the routine's owner is loaded.
+     */
+    private Integer ownerId(Routine routine) {
+        return authService.isCurrentUserAdmin()
+            ? routine.getUser().getUserId()
+            : authService.getCurrentUserId();
+    }
+
+    /**
+     * Verifies the caller may add to the routine with one indexed existence check,
+     * then returns an uninitialized reference for the task's FK.
+     */
+    private Routine getAccessibleRoutineReference(Integer routineId) {
+        boolean accessible = authService.isCurrentUserAdmin()
+            ? routineRepo.existsById(routineId)
+            : routineRepo.existsByRoutineIdAndUserUserId(
+                routineId,
+                authService.getCurrentUserId()
+            );
+        if (!accessible) {
+            throw routineNotFound(routineId);
+        }
+        return routineRepo.getReferenceById(routineId);
+    }
+
+    private EntityNotFoundException taskNotFound(Integer id) {
+        return new EntityNotFoundException("Task not found with id: " + id);
+    }
+
+    private EntityNotFoundException routineNotFound(Integer routineId) {
+        return new EntityNotFoundException(
+            "Routine not found with id: " + routineId
+        );
+    }
+
     public void applyTaskUpdates(Task existing, Task updates) {
         if (updates.getTitle() != null) existing.setTitle(updates.getTitle());
         if (updates.getTaskType() != null) existing.setTaskType(
@@ -0,0 +1,199 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.GeneratedRoutine;
+import com.example.rootine_api.dto.GeneratedTask;
+import com.example.rootine_api.enums.DetailLevel;
+import com.example.rootine_api.model.Template;
+import com.example.rootine_api.repository.TemplateRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local routine generator: answers a prompt with the closest stored template, without any network call.
+ *
+ * Templates whose configJson holds a routine (a non-empty "tasks" array) are indexed by the character
+ * trigrams of their title, description and task titles. A prompt is scored against every template
+ * through an inverted index (Jaccard similarity of the trigram sets), so a lookup costs microseconds.
+ * Prompts that share nothing with any template get the first system template, or an empty routine.
+ *
+ * Used as the fallback when OpenAI is failing or slow, and as the only generator in offline mode
+ * (rootine.generator.offline=true), e.g. for load tests without network access.
+ * The index is rebuilt from the database every rootine.generator.template.refresh.
+ */
+@Component
+public class TemplateRoutineGenerator implements RoutineGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateRoutineGenerator.class);
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final TemplateRepo templateRepo;
+    private final ObjectMapper objectMapper;
+    private final long refreshNanos;
+
+    private volatile Index index;
+
+    public TemplateRoutineGenerator(
+            TemplateRepo templateRepo,
+            ObjectMapper objectMapper,
+            @Value("${rootine.generator.template.refresh:5m}") Duration refresh
+    ) {
+        this.templateRepo = templateRepo;
+        this.objectMapper = objectMapper;
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    @Override
+    public GeneratedRoutine generate(String prompt) {
+        JsonNode match = index().bestMatch(grams(prompt));
+        if (match == null) {
+            GeneratedRoutine empty = new GeneratedRoutine();
+            empty.setDetailLevel(DetailLevel.medium);
+            return empty;
+        }
+        // A fresh copy per call: callers may modify what they get.
+        try {
+            return objectMapper.treeToValue(match, GeneratedRoutine.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read indexed template", e);
+        }
+    }
+
+    /**
+     * Drops the index so the next call reloads the templates.
+     */
+    public void refresh() {
+        index = null;
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current != null && System.nanoTime() - current.builtAt < refreshNanos) {
+            return current;
+        }
+        synchronized (this) {
+            current = index;
+            if (current == null || System.nanoTime() - current.builtAt >= refreshNanos) {
+                current = build(templateRepo.findAll());
+                index = current;
+            }
+            return current;
+        }
+    }
+
+    private Index build(List<Template> templates) {
+        Index built = new Index(System.nanoTime());
+        for (Template template : templates) {
+            JsonNode config = template.getConfigJson();
+            if (config == null || !config.path("tasks").isArray() || config.path("tasks").isEmpty()) {
+                continue; // settings-only template
+            }
+
+            GeneratedRoutine routine;
+            try {
+                routine = objectMapper.treeToValue(config, GeneratedRoutine.class);
+                if (routine.getName() == null || routine.getName().isBlank()) {
+                    routine.setName(template.getTitle());
+                }
+                if (routine.getDetailLevel() == null) {
+                    routine.setDetailLevel(DetailLevel.medium);
+                }
+                routine.validate();
+            } catch (Exception e) {
+                log.warn("Skipping template {}: {}", template.getTemplateId(), e.getMessage());
+                continue;
+            }
+
+            StringBuilder text = new StringBuilder(template.getTitle());
+            text.append(' ').append(nullToEmpty(template.getDescription()));
+            text.append(' ').append(nullToEmpty(routine.getName()));
+            text.append(' ').append(nullToEmpty(routine.getDescription()));
+            for (GeneratedTask task : routine.getTasks()) {
+                text.append(' ').append(task.getTitle());
+            }
+            built.add(objectMapper.valueToTree(routine), grams(text.toString()), Boolean.TRUE.equals(template.getIsSystem()));
+        }
+        log.info("Indexed {} routine templates", built.routines.size());
+        return built;
+    }
+
+    /**
+     * Character trigrams of the normalized words, each word padded with spaces so short words still count.
+     */
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : CachingOpenAIService.normalize(text).split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = " " + word + " ";
+            for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + GRAM_LENGTH));
+            }
+        }
+        return grams;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static final class Index {
+
+        private final long builtAt;
+        private final List<JsonNode> routines = new ArrayList<>();
+        private final List<Integer> gramCounts = new ArrayList<>();
+        private final Map<String, List<Integer>> postings = new HashMap<>();
+        private JsonNode firstSystem;
+
+        private Index(long builtAt) {
+            this.builtAt = builtAt;
+        }
+
+        private void add(JsonNode routine, Set<String> grams, boolean system) {
+            int id = routines.size();
+            routines.add(routine);
+            gramCounts.add(grams.size());
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(id);
+            }
+            if (system && firstSystem == null) {
+                firstSystem = routine;
+            }
+        }
+
+        private JsonNode bestMatch(Set<String> promptGrams) {
+            int[] shared = new int[routines.size()];
+            for (String gram : promptGrams) {
+                for (int id : postings.getOrDefault(gram, List.of())) {
+                    shared[id]++;
+                }
+            }
+
+            int best = -1;
+            double bestScore = 0;
+            for (int id = 0; id < shared.length; id++) {
+                if (shared[id] == 0) {
+                    continue;
+                }
+                double score = (double) shared[id] / (promptGrams.size() + gramCounts.get(id) - shared[id]);
+                if (score > bestScore) {
+                    best = id;
+                    bestScore = score;
+                }
+            }
+            return best >= 0 ? routines.get(best) : firstSystem;
+        }
+    }
+}
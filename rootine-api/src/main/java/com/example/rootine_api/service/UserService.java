@@ -1,12 +1,12 @@
 package com.example.rootine_api.service;
 
 import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface UserService {
-    List<User> getAllUser();
+    KeysetPage<User> getAllUser(String cursor, Integer limit);
     User getUserById(Integer id);
     User getUserByEmail(String email);
     User getUserByUUID(UUID uuid);
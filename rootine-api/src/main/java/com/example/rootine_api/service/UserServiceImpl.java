@@ -3,8 +3,13 @@ package com.example.rootine_api.service;
 import com.example.rootine_api.exception.UserAlreadyExistsException;
 import com.example.rootine_api.exception.UserNotFoundException;
 import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.pagination.PageCursor;
+import com.example.rootine_api.pagination.PageSize;
 import com.example.rootine_api.repository.UserRepo;
 import com.example.rootine_api.security.AuthService;
+import com.example.rootine_api.security.TokenRevocationService;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,18 +24,28 @@ public class UserServiceImpl implements UserService {
     private final UserRepo userRepo;
     private final AuthService authService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final PageSize pageSize;
 
-    public UserServiceImpl(UserRepo userRepo, AuthService authService, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepo userRepo, AuthService authService, PasswordEncoder passwordEncoder,
+                           TokenRevocationService tokenRevocationService, PageSize pageSize) {
         this.userRepo = userRepo;
         this.authService = authService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.pageSize = pageSize;
     }
 
     // ─── Retrieval ───────────────────────────────────────────────────────────────
 
     @Override
-    public List<User> getAllUser() {
-        return userRepo.findAll();
+    public KeysetPage<User> getAllUser(String cursor, Integer limit) {
+        int size = pageSize.resolve(limit);
+        PageCursor after = PageCursor.decode(cursor, 2);
+        List<User> users = after == null
+                ? userRepo.findByOrderByCreatedAtAscUserIdAsc(Limit.of(size + 1))
+                : userRepo.findPageAfter(after.nullableTimestampKey(0), after.intKey(1), Limit.of(size + 1));
+        return KeysetPage.of(users, size, user -> PageCursor.encode(user.getCreatedAt(), user.getUserId()));
     }
 
     @Override
@@ -76,7 +91,13 @@ public class UserServiceImpl implements UserService {
         authService.verifyOwnershipOrAdmin(existingUser.getUserId());
 
         applyUserUpdates(existingUser, userUpdates);
-        return userRepo.save(existingUser);
+        User savedUser = userRepo.save(existingUser);
+
+        // Tokens carry the email as subject and are trusted without a lookup, so credential changes must revoke them.
+        if (userUpdates.getPassword() != null || userUpdates.getEmail() != null) {
+            tokenRevocationService.revokeAllForUser(savedUser.getUserId());
+        }
+        return savedUser;
     }
 
     private void applyUserUpdates(User existing, User updates) {
@@ -92,6 +113,7 @@ public class UserServiceImpl implements UserService {
         User existingUser = getUserById(id);
         authService.verifyOwnershipOrAdmin(existingUser.getUserId());
         userRepo.delete(existingUser);
+        tokenRevocationService.revokeAllForUser(existingUser.getUserId());
     }
 
     // ─── Utility ──────────────────────────────────────────────────────────────────
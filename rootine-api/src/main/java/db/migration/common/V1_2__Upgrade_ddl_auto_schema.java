@@ -0,0 +1,188 @@
+package db.migration.common;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Brings a database created by ddl-auto=update up to V1/V1_1, which such databases are baselined
+ * past (spring.flyway.baseline-version). Depending on the release that last ran against it, any of
+ * the columns, tables, indexes and id generators below may be missing; each is only added when it is.
+ * On a database created by the migrations everything exists already and nothing happens.
+ *
+ * Unique and foreign key constraints already exist there under Hibernate's generated names and are left alone.
+ */
+public class V1_2__Upgrade_ddl_auto_schema extends BaseJavaMigration {
+
+    // Routine and Task hand out pooled ids 50 at a time (@SequenceGenerator allocationSize).
+    private static final int ID_ALLOCATION = 50;
+
+    private static final List<Column> COLUMNS = List.of(
+        new Column("user", "sync_version", "BIGINT"),
+        new Column("routine", "next_task_position", "INT"),
+        new Column("routine", "sync_version", "BIGINT"),
+        new Column("routine", "version", "BIGINT"),
+        new Column("task", "position", "INT"),
+        new Column("task", "sync_version", "BIGINT")
+    );
+
+    private static final List<Index> INDEXES = List.of(
+        new Index("user", "idx_user_created", "created_at, user_id"),
+        new Index("routine", "idx_routine_created", "created_at, routine_id"),
+        new Index("routine", "idx_routine_user_created", "user_id, created_at, routine_id"),
+        new Index("routine", "idx_routine_user_sync", "user_id, sync_version"),
+        new Index("task", "idx_task_routine_position", "routine_id, position, task_id"),
+        new Index("task", "idx_task_routine_sync", "routine_id, sync_version")
+    );
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (Statement statement = connection.createStatement()) {
+            for (Column column : COLUMNS) {
+                if (!hasColumn(connection, column.table(), column.name())) {
+                    statement.execute("ALTER TABLE " + column.table() + " ADD COLUMN " + column.name() + " " + column.type());
+                }
+            }
+            for (Index index : INDEXES) {
+                if (!hasIndex(connection, index.table(), index.name())) {
+                    statement.execute("CREATE INDEX " + index.name() + " ON " + index.table() + " (" + index.columns() + ")");
+                }
+            }
+            createTemplate(connection, statement);
+            createSyncTombstone(connection, statement);
+
+            boolean mysql = metaData.getDatabaseProductName().toLowerCase().contains("mysql");
+            for (String table : List.of("routine", "task")) {
+                if (mysql) {
+                    seedGeneratorTable(connection, statement, table);
+                } else {
+                    seedSequence(connection, statement, table);
+                }
+            }
+        }
+    }
+
+    // ─── Tables (as in V1) ───────────────────────────────────────────────────────
+
+    private static void createTemplate(Connection connection, Statement statement) throws SQLException {
+        if (hasTable(connection, "template")) {
+            return;
+        }
+        statement.execute("""
+            CREATE TABLE template (
+                template_id INT NOT NULL AUTO_INCREMENT,
+                title VARCHAR(150) NOT NULL,
+                description TEXT,
+                config_json JSON,
+                created_at DATETIME(6),
+                created_by INT,
+                is_system BIT,
+                PRIMARY KEY (template_id)
+            ) ENGINE=InnoDB""");
+        statement.execute("ALTER TABLE template ADD CONSTRAINT fk_template_created_by "
+            + "FOREIGN KEY (created_by) REFERENCES user (user_id) ON DELETE SET NULL");
+    }
+
+    private static void createSyncTombstone(Connection connection, Statement statement) throws SQLException {
+        if (hasTable(connection, "sync_tombstone")) {
+            return;
+        }
+        statement.execute("""
+            CREATE TABLE sync_tombstone (
+                tombstone_id BIGINT NOT NULL AUTO_INCREMENT,
+                user_id INT NOT NULL,
+                entity ENUM('ROUTINE', 'TASK') NOT NULL,
+                entity_id INT NOT NULL,
+                routine_id INT,
+                sync_version BIGINT NOT NULL,
+                PRIMARY KEY (tombstone_id)
+            ) ENGINE=InnoDB""");
+        statement.execute("CREATE INDEX idx_sync_tombstone_user_version ON sync_tombstone (user_id, sync_version)");
+        statement.execute("ALTER TABLE sync_tombstone ADD CONSTRAINT fk_sync_tombstone_user "
+            + "FOREIGN KEY (user_id) REFERENCES user (user_id) ON DELETE CASCADE");
+    }
+
+    // ─── Id generators (as in V1_1) ──────────────────────────────────────────────
+    // Hibernate's pooled optimizer reads a value V and hands out V - 49 .. V, so a generator that
+    // is to continue after the existing rows must hold at least MAX(id) + 50.
+
+    private static void seedGeneratorTable(Connection connection, Statement statement, String table) throws SQLException {
+        String generator = table + "_seq";
+        if (!hasTable(connection, generator)) {
+            statement.execute("CREATE TABLE " + generator + " (next_val BIGINT) ENGINE=InnoDB");
+            statement.execute("INSERT INTO " + generator + " VALUES (1)");
+        }
+        Long maxId = maxId(statement, table);
+        if (maxId != null) {
+            statement.execute("UPDATE " + generator + " SET next_val = GREATEST(next_val, " + (maxId + ID_ALLOCATION) + ")");
+        }
+    }
+
+    private static void seedSequence(Connection connection, Statement statement, String table) throws SQLException {
+        String generator = table + "_seq";
+        if (hasSequence(connection, generator)) {
+            return;
+        }
+        Long maxId = maxId(statement, table);
+        long start = maxId == null ? 1 : maxId + ID_ALLOCATION;
+        statement.execute("CREATE SEQUENCE " + generator + " START WITH " + start + " INCREMENT BY " + ID_ALLOCATION);
+    }
+
+    private static Long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MAX(" + table + "_id) FROM " + table)) {
+            resultSet.next();
+            long maxId = resultSet.getLong(1);
+            return resultSet.wasNull() ? null : maxId;
+        }
+    }
+
+    // ─── Metadata ────────────────────────────────────────────────────────────────
+
+    private static boolean hasTable(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+            .getTables(connection.getCatalog(), connection.getSchema(), table, new String[] {"TABLE"})) {
+            return tables.next();
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData()
+            .getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+            return columns.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        try (ResultSet indexes = connection.getMetaData()
+            .getIndexInfo(connection.getCatalog(), connection.getSchema(), table, false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // H2 only (tests): MySQL emulates sequences with the tables above.
+    private static boolean hasSequence(Connection connection, String sequence) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet sequences = statement.executeQuery(
+                 "SELECT 1 FROM information_schema.sequences WHERE sequence_name = '" + sequence + "'")) {
+            return sequences.next();
+        }
+    }
+
+    private record Column(String table, String name, String type) {
+    }
+
+    private record Index(String table, String name, String columns) {
+    }
+}
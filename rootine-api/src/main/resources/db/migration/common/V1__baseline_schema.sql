@@ -0,0 +1,91 @@
+-- Baseline: the schema the entities mapped when migrations were introduced (previously created
+-- by ddl-auto=update). Existing databases are baselined past this script (spring.flyway.baseline-*).
+-- Runs on MySQL 8 and on H2 in MySQL mode (tests); id generators are vendor-specific (V1_1).
+
+CREATE TABLE user (
+    user_id INT NOT NULL AUTO_INCREMENT,
+    uuid BINARY(16) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at DATETIME(6),
+    last_login DATETIME(6),
+    sync_version BIGINT,
+    PRIMARY KEY (user_id),
+    CONSTRAINT uk_user_uuid UNIQUE (uuid),
+    -- Login lookup (findByEmail) is served by this unique index.
+    CONSTRAINT uk_user_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_user_created ON user (created_at, user_id);
+
+CREATE TABLE routine (
+    routine_id INT NOT NULL,
+    user_id INT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    detail_level ENUM('high', 'low', 'medium'),
+    is_active BIT,
+    created_at DATETIME(6),
+    next_task_position INT,
+    sync_version BIGINT,
+    version BIGINT,
+    PRIMARY KEY (routine_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_routine_created ON routine (created_at, routine_id);
+CREATE INDEX idx_routine_user_created ON routine (user_id, created_at, routine_id);
+CREATE INDEX idx_routine_user_sync ON routine (user_id, sync_version);
+
+CREATE TABLE task (
+    task_id INT NOT NULL,
+    routine_id INT NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    description VARCHAR(255),
+    type ENUM('event', 'habit', 'one_time', 'routine'),
+    start_time TIME(6),
+    duration INT,
+    priority ENUM('high', 'low', 'medium'),
+    is_completed BIT,
+    position INT,
+    created_at TIMESTAMP(0) NULL,
+    sync_version BIGINT,
+    PRIMARY KEY (task_id)
+) ENGINE=InnoDB;
+
+-- Ordered reads and keyset pages of a routine's tasks: WHERE routine_id = ? ORDER BY position, task_id
+CREATE INDEX idx_task_routine_position ON task (routine_id, position, task_id);
+CREATE INDEX idx_task_routine_sync ON task (routine_id, sync_version);
+
+CREATE TABLE template (
+    template_id INT NOT NULL AUTO_INCREMENT,
+    title VARCHAR(150) NOT NULL,
+    description TEXT,
+    config_json JSON,
+    created_at DATETIME(6),
+    created_by INT,
+    is_system BIT,
+    PRIMARY KEY (template_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE sync_tombstone (
+    tombstone_id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id INT NOT NULL,
+    entity ENUM('ROUTINE', 'TASK') NOT NULL,
+    entity_id INT NOT NULL,
+    routine_id INT,
+    sync_version BIGINT NOT NULL,
+    PRIMARY KEY (tombstone_id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_sync_tombstone_user_version ON sync_tombstone (user_id, sync_version);
+
+-- Foreign keys last, so each reuses an index above that starts with its column instead of getting its own.
+ALTER TABLE routine
+    ADD CONSTRAINT fk_routine_user FOREIGN KEY (user_id) REFERENCES user (user_id) ON DELETE CASCADE;
+ALTER TABLE task
+    ADD CONSTRAINT fk_task_routine FOREIGN KEY (routine_id) REFERENCES routine (routine_id) ON DELETE CASCADE;
+ALTER TABLE template
+    ADD CONSTRAINT fk_template_created_by FOREIGN KEY (created_by) REFERENCES user (user_id) ON DELETE SET NULL;
+ALTER TABLE sync_tombstone
+    ADD CONSTRAINT fk_sync_tombstone_user FOREIGN KEY (user_id) REFERENCES user (user_id) ON DELETE CASCADE;
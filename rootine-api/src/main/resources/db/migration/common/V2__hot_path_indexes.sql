@@ -0,0 +1,2 @@
+-- Active routine of a user: WHERE user_id = ? AND is_active (activation, today's routine).
+CREATE INDEX idx_routine_user_active ON routine (user_id, is_active);
@@ -0,0 +1,18 @@
+-- At most one active routine per user, enforced by the database.
+-- active_user_id is the owner while the routine is active and NULL otherwise;
+-- the unique index ignores NULLs, so it only constrains active routines.
+
+-- Earlier concurrent activations could leave several active: keep the newest of each user.
+UPDATE routine
+SET is_active = FALSE
+WHERE is_active = TRUE
+  AND routine_id NOT IN (
+      SELECT keep_id FROM (
+          SELECT MAX(routine_id) AS keep_id FROM routine WHERE is_active = TRUE GROUP BY user_id
+      ) newest
+  );
+
+ALTER TABLE routine
+    ADD COLUMN active_user_id INT GENERATED ALWAYS AS (CASE WHEN is_active = TRUE THEN user_id END);
+
+CREATE UNIQUE INDEX uk_routine_active_user ON routine (active_user_id);
@@ -0,0 +1,10 @@
+-- Token revocation cut-offs (TokenRevocationService): tokens of the user issued at or before
+-- revoked_before (epoch seconds) are rejected. No foreign key: deleting the user must keep the row.
+CREATE TABLE token_revocation (
+    user_id INT NOT NULL,
+    revoked_before BIGINT NOT NULL,
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB;
+
+-- Startup load and scheduled refresh: cut-offs newer than the longest token lifetime.
+CREATE INDEX idx_token_revocation_revoked_before ON token_revocation (revoked_before);
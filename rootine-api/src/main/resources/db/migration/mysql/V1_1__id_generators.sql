@@ -0,0 +1,13 @@
+-- MySQL has no sequences: Hibernate emulates routine_seq and task_seq with single-row tables
+-- (pooled, allocationSize 50; see Routine and Task).
+CREATE TABLE routine_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO routine_seq VALUES (1);
+
+CREATE TABLE task_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+INSERT INTO task_seq VALUES (1);
@@ -0,0 +1,16 @@
+-- System templates (TemplateRoutineGenerator's offline / fallback routines), formerly in data.sql.
+-- Skipped when a system template of the same title exists, so databases seeded by hand keep theirs.
+
+INSERT INTO template (title, description, config_json, created_at, created_by, is_system)
+SELECT 'Default Work Routine', 'A standard workday routine with typical tasks',
+       '{"notifications": true, "preferred_start": "08:00", "break_between_tasks": 10, "detailLevel": "medium", "tasks": [{"title": "Plan the day", "taskType": "routine", "startTime": "08:00:00", "duration": 15, "priority": "medium"}, {"title": "Deep work block", "taskType": "routine", "startTime": "08:30:00", "duration": 120, "priority": "high"}, {"title": "Lunch break", "taskType": "routine", "startTime": "12:30:00", "duration": 45, "priority": "medium"}, {"title": "Email and meetings", "taskType": "routine", "startTime": "14:00:00", "duration": 90, "priority": "medium"}]}',
+       NOW(6), NULL, TRUE
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM template WHERE title = 'Default Work Routine' AND is_system);
+
+INSERT INTO template (title, description, config_json, created_at, created_by, is_system)
+SELECT 'Fitness Routine', 'A balanced morning fitness routine',
+       '{"notifications": true, "preferred_start": "06:00", "break_between_tasks": 15, "detailLevel": "medium", "tasks": [{"title": "Warm up", "taskType": "habit", "startTime": "06:00:00", "duration": 10, "priority": "medium"}, {"title": "Run", "taskType": "habit", "startTime": "06:10:00", "duration": 30, "priority": "high"}, {"title": "Stretch", "taskType": "habit", "startTime": "06:45:00", "duration": 15, "priority": "medium"}]}',
+       NOW(6), NULL, TRUE
+FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM template WHERE title = 'Fitness Routine' AND is_system);
@@ -0,0 +1,92 @@
+package com.example.rootine_api.benchmark;
+
+import com.example.rootine_api.security.RateLimitFilter;
+import com.example.rootine_api.security.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Overhead of RateLimitFilter on requests it does not throttle, with 4 concurrent threads.
+ *
+ * - noFilter: the chain alone (baseline)
+ * - unlimitedPath: a GET outside the limited endpoints (method check + path lookup only)
+ * - limitedPathGranted: a POST to /openai/response whose bucket never runs dry (one CAS)
+ * - sharedBucketGranted: every thread on the same key, the worst case for CAS contention
+ *
+ * Run with:
+ *   ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RateLimitFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RateLimitFilterBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        final RateLimitFilter filter = new RateLimitFilter(
+                new ObjectMapper(), true, Integer.MAX_VALUE, Duration.ofNanos(1), Integer.MAX_VALUE, Duration.ofNanos(1));
+        final RateLimiter limiter = new RateLimiter(Integer.MAX_VALUE, Duration.ofNanos(1));
+        final AtomicInteger clients = new AtomicInteger();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        MockHttpServletRequest unlimited;
+        MockHttpServletRequest limited;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setUp(Shared shared) {
+            String address = "10.0.0." + shared.clients.incrementAndGet();
+            unlimited = new MockHttpServletRequest("GET", "/routine/routines");
+            unlimited.setRemoteAddr(address);
+            limited = new MockHttpServletRequest("POST", "/openai/response");
+            limited.setRemoteAddr(address);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public void noFilter(Client client) throws Exception {
+        CHAIN.doFilter(client.unlimited, client.response);
+    }
+
+    @Benchmark
+    public void unlimitedPath(Shared shared, Client client) throws Exception {
+        shared.filter.doFilter(client.unlimited, client.response, CHAIN);
+    }
+
+    @Benchmark
+    public void limitedPathGranted(Shared shared, Client client) throws Exception {
+        shared.filter.doFilter(client.limited, client.response, CHAIN);
+    }
+
+    @Benchmark
+    public long sharedBucketGranted(Shared shared) {
+        return shared.limiter.tryAcquire("ip:10.0.0.1", System.nanoTime());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RateLimitFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.rootine_api.benchmark;
+
+import com.example.rootine_api.RootineApiApplication;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.JwtPrincipal;
+import com.example.rootine_api.service.RoutineService;
+import com.example.rootine_api.service.TaskPositionAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of RoutineServiceImpl.activateRoutine, with 4 threads switching the active routine of the
+ * same user (several devices at once).
+ *
+ * Runs the application context on H2 in MySQL mode migrated by the application's Flyway scripts, so
+ * each call is the shipped path: the retry loop, the locked read of the owner's active flags, the
+ * guarded pair of UPDATEs, the load for the response and, before commit, SyncVersionTracker
+ * stamping the routines that switched (routine rows locked before the user's sync counter).
+ *
+ * failed (an auxiliary counter) is the number of activations that still lost a race after the
+ * service's own retries.
+ *
+ * Run with:
+ *   ./mvnw test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main RoutineActivationBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RoutineActivationBenchmark {
+
+    private static final int ROUTINES = 8;
+    private static final int TASKS_PER_ROUTINE = 10;
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        ConfigurableApplicationContext context;
+        RoutineService routineService;
+        List<Integer> routineIds = new ArrayList<>();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // devtools is on the test classpath; its restart would run the context in another class loader
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = new SpringApplicationBuilder(RootineApiApplication.class)
+                    .profiles("test")
+                    .properties(
+                            "spring.datasource.url=jdbc:h2:mem:activation-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                                    + "NON_KEYWORDS=USER,VALUE;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+                            "server.port=0",
+                            "openai.api.key=bench",
+                            "rootine.openai.similarity.snapshot-path=",
+                            "logging.level.root=WARN"
+                    )
+                    .run();
+            routineService = context.getBean(RoutineService.class);
+
+            User owner = context.getBean(UserRepo.class).save(new User("bench@example.com", "hash", "Bench"));
+            RoutineRepo routineRepo = context.getBean(RoutineRepo.class);
+            for (int r = 1; r <= ROUTINES; r++) {
+                Routine routine = new Routine();
+                routine.setName("Routine " + r);
+                routine.setUser(owner);
+                routine.setIsActive(false);
+                for (int t = 0; t < TASKS_PER_ROUTINE; t++) {
+                    Task task = new Task();
+                    task.setTitle("Task " + t);
+                    task.setPosition(t * TaskPositionAllocator.POSITION_GAP);
+                    task.setRoutine(routine);
+                    routine.getTasks().add(task);
+                }
+                routineIds.add(routineRepo.save(routine).getRoutineId());
+            }
+
+            // Every benchmark thread acts as the owner, authenticated as by a JWT (no user lookup).
+            List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+            SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    new JwtPrincipal(owner.getUserId(), owner.getUuid(), owner.getEmail(), authorities),
+                    null,
+                    authorities
+            ));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            SecurityContextHolder.clearContext();
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Client {
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public Routine activate(Application application, Client client) {
+        List<Integer> routineIds = application.routineIds;
+        Integer routineId = routineIds.get(ThreadLocalRandom.current().nextInt(routineIds.size()));
+        try {
+            return application.routineService.activateRoutine(routineId);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            // Out of retries; the time spent still counts as latency.
+            client.failed++;
+            return null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RoutineActivationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.service.JwtService;
+import com.example.rootine_api.service.OpenAIService;
+import com.example.rootine_api.service.RoutineStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(OpenAIController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import({RoutineStreamService.class, OpenAIControllerStreamTest.FakeStreamingConfig.class})
+class OpenAIControllerStreamTest {
+
+    // The routine split the way a model streams it: small fragments, cutting through keys and values
+    private static final List<String> FRAGMENTS = List.of(
+            "{\"name\":\"Run", "ner\",\"detailLevel\":\"medium\",\"tasks\":[",
+            "{\"title\":\"Warm up\",\"dura", "tion\":10}", ",{\"title\":\"Run\",",
+            "\"duration\":30,\"priority\":\"high\"}", "]}"
+    );
+
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Test
+    void streamOpenAIResponse_shouldReleaseRequestThreadAndRelayTokensAndTasks() throws Exception {
+        MvcResult result = mockMvc.perform(post("/openai/response/stream")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("morning routine for a runner"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The handler returned while the model had not produced anything yet
+        assertEquals("", result.getResponse().getContentAsString());
+        RELEASE.countDown();
+
+        String body = awaitEvent(result, "event:done");
+
+        assertEquals(FRAGMENTS.size(), count(body, "event:token"));
+        assertEquals(2, count(body, "event:task"));
+        assertTrue(body.contains("data:{\"title\":\"Warm up\",\"duration\":10}"));
+        assertTrue(body.indexOf("Warm up\",\"duration\"") < body.indexOf("event:token\ndata:{\"text\":\",{\\\"title\\\":\\\"Run"),
+                "first task must be relayed before the second one starts streaming");
+        assertTrue(body.contains("event:done\ndata:{\"name\":\"Runner\""));
+    }
+
+    private static String awaitEvent(MvcResult result, String event) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(event) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            body = result.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains(event), "no " + event + " in: " + body);
+        return body;
+    }
+
+    private static int count(String body, String needle) {
+        int count = 0;
+        for (int i = body.indexOf(needle); i >= 0; i = body.indexOf(needle, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @TestConfiguration
+    static class FakeStreamingConfig {
+
+        /**
+         * Local stand-in for the streaming completion: no network, fragments released by the test.
+         */
+        @Bean
+        OpenAIService fakeStreamingOpenAIService() {
+            return new OpenAIService() {
+                @Override
+                public String generateRoutine(String prompt) {
+                    return String.join("", FRAGMENTS);
+                }
+
+                @Override
+                public String streamRoutine(String prompt, Consumer<String> onDelta) {
+                    try {
+                        assertTrue(RELEASE.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    FRAGMENTS.forEach(onDelta);
+                    return String.join("", FRAGMENTS);
+                }
+            };
+        }
+
+        @Bean(name = "openAIExecutor", defaultCandidate = false)
+        Executor openAIExecutor() {
+            return Executors.newSingleThreadExecutor();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.StompAuthChannelInterceptor;
+import com.example.rootine_api.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End to end over a real socket: a JWT-authenticated STOMP session receives the change
+ * made through the REST API by the same user, and only that user.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"openai.api.key=test", "rootine.openai.similarity.snapshot-path="}
+)
+@ActiveProfiles("test")
+class RoutineChangeWebSocketTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private SimpUserRegistry userRegistry;
+
+    private WebSocketStompClient stompClient;
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User("owner@example.com", "hash", "Owner"));
+        other = userRepo.save(new User("other@example.com", "hash", "Other"));
+
+        stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stompClient.stop();
+        routineRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void createRoutine_shouldBePushedToOwnerSessionsOnly() throws Exception {
+        BlockingQueue<Map<String, Object>> ownerEvents = new LinkedBlockingQueue<>();
+        BlockingQueue<Map<String, Object>> otherEvents = new LinkedBlockingQueue<>();
+        subscribe(connect(jwtService.generateToken(owner)), ownerEvents);
+        subscribe(connect(jwtService.generateToken(other)), otherEvents);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateToken(owner));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> created = restTemplate.postForEntity(
+                "/routine", new HttpEntity<>("{\"name\":\"Morning\"}", headers), Map.class);
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+
+        Map<String, Object> event = ownerEvents.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event);
+        assertEquals(RoutineChangeEvent.Entity.ROUTINE.name(), event.get("entity"));
+        assertEquals(RoutineChangeEvent.Action.CREATED.name(), event.get("action"));
+        assertEquals(created.getBody().get("routineId"), event.get("routineId"));
+        assertFalse(event.containsKey("userId"));
+        assertNull(otherEvents.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void connect_shouldBeRefused_withoutValidToken() {
+        assertThrows(ExecutionException.class, () -> connect("not-a-token"));
+    }
+
+    private StompSession connect(String token) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return stompClient
+                .connectAsync("ws://localhost:" + port + "/ws", new WebSocketHttpHeaders(), connectHeaders,
+                        new StompSessionHandlerAdapter() {
+                        })
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private void subscribe(StompSession session, BlockingQueue<Map<String, Object>> events) throws Exception {
+        session.subscribe(StompAuthChannelInterceptor.CHANGES_SUBSCRIPTION, new StompFrameHandler() {
+            @Override
+            public @NotNull Type getPayloadType(@NotNull StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void handleFrame(@NotNull StompHeaders headers, Object payload) {
+                events.add((Map<String, Object>) payload);
+            }
+        });
+        // SUBSCRIBE is processed asynchronously; wait until the broker knows about it.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (userRegistry.findSubscriptions(s -> s.getSession().getId().equals(session.getSessionId())).isEmpty()
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.rootine_api.controller;
+
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.service.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"openai.api.key=test", "rootine.openai.similarity.snapshot-path="}
+)
+@ActiveProfiles("test")
+class RoutineETagTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User("owner@example.com", "hash", "Owner"));
+        other = userRepo.save(new User("other@example.com", "hash", "Other"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepo.deleteAll();
+        routineRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void getRoutine_shouldAnswer304_untilRoutineChanges() {
+        Object routineId = post("/routine", "{\"name\":\"Morning\"}").get("routineId");
+
+        ResponseEntity<String> first = get(owner, "/routine/" + routineId, null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        ResponseEntity<String> unchanged = get(owner, "/routine/" + routineId, etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode());
+        assertNull(unchanged.getBody());
+
+        put("/routine/" + routineId, "{\"name\":\"Evening\"}");
+
+        ResponseEntity<String> changed = get(owner, "/routine/" + routineId, etag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+        assertTrue(changed.getBody().contains("Evening"));
+    }
+
+    @Test
+    void getTasks_shouldRevalidate_afterTaskIsAdded() {
+        Object routineId = post("/routine", "{\"name\":\"Morning\"}").get("routineId");
+        String etag = get(owner, "/task/routine/" + routineId, null).getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, get(owner, "/task/routine/" + routineId, etag).getStatusCode());
+
+        post("/task?routineId=" + routineId, "{\"title\":\"Stretch\"}");
+
+        ResponseEntity<String> changed = get(owner, "/task/routine/" + routineId, etag);
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertTrue(changed.getBody().contains("Stretch"));
+    }
+
+    @Test
+    void activate_shouldOnlyRevalidateTheRoutinesItSwitched() {
+        Object morning = post("/routine", "{\"name\":\"Morning\"}").get("routineId");
+        Object evening = post("/routine", "{\"name\":\"Evening\"}").get("routineId");
+        Object weekend = post("/routine", "{\"name\":\"Weekend\"}").get("routineId");
+        post("/routine/" + morning + "/activate", "");
+        String morningETag = get(owner, "/routine/" + morning, null).getHeaders().getETag();
+        String weekendETag = get(owner, "/routine/" + weekend, null).getHeaders().getETag();
+
+        post("/routine/" + evening + "/activate", "");
+
+        assertEquals(HttpStatus.OK, get(owner, "/routine/" + morning, morningETag).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, get(owner, "/routine/" + weekend, weekendETag).getStatusCode());
+    }
+
+    @Test
+    void getRoutine_shouldNotLeakVersion_toOtherUsers() {
+        Object routineId = post("/routine", "{\"name\":\"Morning\"}").get("routineId");
+        String etag = get(owner, "/routine/" + routineId, null).getHeaders().getETag();
+
+        ResponseEntity<String> response = get(other, "/routine/" + routineId, etag);
+        assertNotEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+    }
+
+    private ResponseEntity<String> get(User user, String url, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateToken(user));
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private Map<?, ?> post(String url, String json) {
+        ResponseEntity<Map> response = restTemplate.postForEntity(url, ownerJson(json), Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private void put(String url, String json) {
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.PUT, ownerJson(json), Map.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    private HttpEntity<String> ownerJson(String json) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.generateToken(owner));
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(json, headers);
+    }
+}
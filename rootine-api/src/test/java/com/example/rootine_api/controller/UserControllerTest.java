@@ -1,6 +1,7 @@
 package com.example.rootine_api.controller;
 
 import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
 import com.example.rootine_api.service.JwtService;
 import com.example.rootine_api.service.UserService;
 import org.junit.jupiter.api.Test;
@@ -32,14 +33,14 @@ class UserControllerTest {
 
     @Test
     void getAllUsers_shouldReturnOk() throws Exception {
-        Mockito.when(userService.getAllUser()).thenReturn(Collections.emptyList());
+        Mockito.when(userService.getAllUser(null, null)).thenReturn(new KeysetPage<>(Collections.emptyList(), null));
         mockMvc.perform(get("/user/users"))
                 .andExpect(status().isOk());
     }
 
     @Test
     void getAllUsers_shouldReturnEmptyList() throws Exception {
-        Mockito.when(userService.getAllUser()).thenReturn(Collections.emptyList());
+        Mockito.when(userService.getAllUser(null, null)).thenReturn(new KeysetPage<>(Collections.emptyList(), null));
         mockMvc.perform(get("/user/users"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
@@ -50,13 +51,24 @@ class UserControllerTest {
         User user = new User();
         user.setUserId(1);
         user.setEmail("test@example.com");
-        Mockito.when(userService.getAllUser()).thenReturn(List.of(user));
+        Mockito.when(userService.getAllUser(null, null)).thenReturn(new KeysetPage<>(List.of(user), null));
         mockMvc.perform(get("/user/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].userId").value(1))
                 .andExpect(jsonPath("$[0].email").value("test@example.com"));
     }
 
+    @Test
+    void getAllUsers_shouldExposeNextCursorHeader() throws Exception {
+        User user = new User();
+        user.setUserId(1);
+        Mockito.when(userService.getAllUser("abc", 1)).thenReturn(new KeysetPage<>(List.of(user), "def"));
+        mockMvc.perform(get("/user/users").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(KeysetPage.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(jsonPath("$[0].userId").value(1));
+    }
+
     @Test
     void getUserById_shouldReturnUser() throws Exception {
         User user = new User();
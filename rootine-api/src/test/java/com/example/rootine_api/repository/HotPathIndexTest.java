@@ -0,0 +1,70 @@
+package com.example.rootine_api.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The hot read paths are answered from the indexes the migrations create, not from a scan,
+ * checked with EXPLAIN on the migrated H2 (MySQL mode) schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class HotPathIndexTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tasksOfRoutine_shouldSeekOnRoutine_withPositionIndexInKeysetOrder() {
+        String plan = explain(
+                "SELECT task_id, title, position FROM task WHERE routine_id = 1 ORDER BY position, task_id LIMIT 51");
+
+        // H2 keeps a separate index for the foreign key (MySQL reuses idx_task_routine_position for it)
+        // and picks that one on a tie, so the seek is checked here and the composite's order below.
+        assertTrue(plan.contains(": routine_id = 1"), plan);
+        assertFalse(plan.contains("tablescan"), plan);
+        assertEquals(List.of("routine_id", "position", "task_id"), indexColumns("idx_task_routine_position"));
+    }
+
+    @Test
+    void activeRoutineOfUser_shouldUseUserActiveIndex() {
+        String plan = explain("SELECT routine_id FROM routine WHERE user_id = 1 AND is_active = TRUE");
+
+        assertTrue(plan.contains("idx_routine_user_active: user_id = 1"), plan);
+    }
+
+    @Test
+    void userByEmail_shouldUseUniqueEmailIndex() {
+        String plan = explain("SELECT user_id FROM user WHERE email = 'owner@example.com'");
+
+        assertTrue(plan.contains("uk_user_email"), plan);
+    }
+
+    @Test
+    void schema_shouldComeFromMigrations() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"flyway_schema_history\" WHERE \"success\"", Integer.class);
+
+        assertTrue(applied >= 3, "applied migrations: " + applied);
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase();
+    }
+
+    private List<String> indexColumns(String index) {
+        return jdbcTemplate.queryForList(
+                "SELECT column_name FROM information_schema.index_columns WHERE index_name = ? ORDER BY ordinal_position",
+                String.class,
+                index);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.rootine_api.repository;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A database created by ddl-auto=update from the entities as they were before the migrations
+ * (db/legacy/ddl_auto_baseline.sql) is baselined and upgraded by Flyway, then passes the same
+ * schema validation as a migrated one and keeps handing out ids after its existing rows.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "NON_KEYWORDS=USER,VALUE;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(LegacySchemaUpgradeTest.LegacyDatabase.class)
+class LegacySchemaUpgradeTest {
+
+    @TestConfiguration
+    static class LegacyDatabase {
+
+        // The legacy schema has to exist before Flyway first sees the database.
+        @Bean
+        FlywayMigrationStrategy createLegacySchemaThenMigrate() {
+            return flyway -> {
+                new ResourceDatabasePopulator(new ClassPathResource("db/legacy/ddl_auto_baseline.sql"))
+                        .execute(flyway.getConfiguration().getDataSource());
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Test
+    void migrate_shouldBaselineTheLegacySchema_andAddWhatItLacks() {
+        List<String> applied = Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .toList();
+        assertEquals(List.of("1.1", "1.2", "2", "4", "5"), applied);
+
+        assertEquals(1, count("information_schema.columns WHERE table_name = 'routine' AND column_name = 'version'"));
+        assertEquals(1, count("information_schema.tables WHERE table_name = 'sync_tombstone'"));
+        assertEquals(1, count("information_schema.indexes WHERE index_name = 'idx_task_routine_position'"));
+        // The legacy rows are still there, and the single-active index (V4) accepted them.
+        assertEquals(3, count("routine"));
+        assertEquals(1, count("routine WHERE active_user_id = 1"));
+    }
+
+    @Test
+    void save_shouldContinueAfterTheLegacyIds() {
+        Routine routine = new Routine();
+        routine.setName("New");
+        routine.setUser(userRepo.findById(1).orElseThrow());
+        Task task = new Task();
+        task.setTitle("First");
+        task.setRoutine(routine);
+        routine.getTasks().add(task);
+
+        routine = routineRepo.saveAndFlush(routine);
+
+        assertTrue(routine.getRoutineId() > 7, "routine id " + routine.getRoutineId());
+        assertTrue(routine.getTasks().get(0).getTaskId() > 90, "task id " + routine.getTasks().get(0).getTaskId());
+    }
+
+    private int count(String from) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + from, Integer.class);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.rootine_api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new ObjectMapper().registerModule(new JavaTimeModule()), true, 2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenRefillOneTokenPerInterval() {
+        RateLimiter limiter = new RateLimiter(3, Duration.ofSeconds(3));
+        long now = 0;
+
+        assertEquals(0, limiter.tryAcquire("k", now));
+        assertEquals(0, limiter.tryAcquire("k", now));
+        assertEquals(0, limiter.tryAcquire("k", now));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("k", now));
+        assertEquals(0, limiter.tryAcquire("other", now));
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        assertEquals(0, limiter.tryAcquire("k", now));
+        assertTrue(limiter.tryAcquire("k", now) > 0);
+
+        // Fully refilled buckets are dropped; the next request starts a fresh one.
+        limiter.evictIdle(now + TimeUnit.SECONDS.toNanos(3));
+        assertEquals(0, limiter.size());
+        assertEquals(0, limiter.tryAcquire("k", now + TimeUnit.SECONDS.toNanos(3)));
+    }
+
+    @Test
+    void doFilter_shouldAnswer429WithRetryAfterOnceTheBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, post("/auth/login", "10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse throttled = post("/auth/login", "10.0.0.1");
+
+        assertEquals(429, throttled.getStatus());
+        assertEquals("20", throttled.getHeader("Retry-After"));
+        assertTrue(throttled.getContentAsString().contains("Too many login requests"));
+        // Keyed by client address: another client is unaffected.
+        assertEquals(200, post("/auth/login", "10.0.0.2").getStatus());
+    }
+
+    @Test
+    void doFilter_shouldKeyAuthenticatedRequestsByUser() throws Exception {
+        authenticate(1);
+        assertEquals(200, post("/openai/response", "10.0.0.1").getStatus());
+        assertEquals(200, post("/routine/generate", "10.0.0.2").getStatus());
+        assertEquals(429, post("/openai/response/stream", "10.0.0.3").getStatus());
+
+        authenticate(2);
+        assertEquals(200, post("/openai/response", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void doFilter_shouldLeaveOtherRequestsAlone() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, post("/routine", "10.0.0.1").getStatus());
+            MockHttpServletRequest get = new MockHttpServletRequest("GET", "/openai/response");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(get, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    private MockHttpServletResponse post(String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(int userId) {
+        JwtPrincipal principal = new JwtPrincipal(userId, UUID.randomUUID(), "user" + userId + "@example.com", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+    }
+}
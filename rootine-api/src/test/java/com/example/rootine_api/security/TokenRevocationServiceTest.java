@@ -0,0 +1,72 @@
+package com.example.rootine_api.security;
+
+import com.example.rootine_api.model.TokenRevocation;
+import com.example.rootine_api.repository.TokenRevocationRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Revocations are stored, so a new instance (a restart or another replica) still rejects the
+ * tokens they cut off. Each test builds its services on the migrated H2 schema.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTest {
+
+    @Autowired
+    private TokenRevocationRepo tokenRevocationRepo;
+
+    @AfterEach
+    void deleteRows() {
+        tokenRevocationRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void isRevoked_shouldRejectRevokedToken_afterServiceIsRebuilt() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 60_000);
+        new TokenRevocationService(tokenRevocationRepo).revokeAllForUser(7);
+
+        TokenRevocationService rebuilt = new TokenRevocationService(tokenRevocationRepo);
+        rebuilt.refresh();
+
+        assertTrue(rebuilt.isRevoked(7, issuedBefore));
+        assertFalse(rebuilt.isRevoked(8, issuedBefore));
+        assertFalse(rebuilt.isRevoked(7, new Date(System.currentTimeMillis() + 2_000)));
+    }
+
+    @Test
+    void revokeAllForUser_shouldKeepOneRowPerUser_withTheLatestCutoff() {
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepo);
+        service.revokeAllForUser(7);
+        long first = tokenRevocationRepo.findById(7).orElseThrow().getRevokedBefore();
+
+        service.revokeAllForUser(7);
+
+        assertEquals(1, tokenRevocationRepo.count());
+        assertTrue(tokenRevocationRepo.findById(7).orElseThrow().getRevokedBefore() >= first);
+    }
+
+    @Test
+    void refresh_shouldDropCutoffsOlderThanTheTokenLifetime() {
+        long dayAndMinuteAgo = System.currentTimeMillis() / 1000 - 24 * 3600 - 60;
+        tokenRevocationRepo.save(new TokenRevocation(9, dayAndMinuteAgo));
+
+        TokenRevocationService service = new TokenRevocationService(tokenRevocationRepo);
+        service.refresh();
+
+        assertFalse(service.isRevoked(9, new Date(dayAndMinuteAgo * 1000)));
+        assertFalse(tokenRevocationRepo.existsById(9));
+    }
+}
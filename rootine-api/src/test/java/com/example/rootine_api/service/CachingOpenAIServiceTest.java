@@ -0,0 +1,212 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.GeneratedRoutine;
+import com.example.rootine_api.enums.DetailLevel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingOpenAIServiceTest {
+
+    private static final String ROUTINE = """
+            {"name":"Runner","detailLevel":"medium","tasks":[{"title":"Run","duration":30}]}
+            """;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile boolean blockUpstream;
+    private volatile boolean failUpstream;
+    private String nextResponse;
+    private CachingOpenAIService service;
+
+    @BeforeEach
+    void setUp() {
+        nextResponse = ROUTINE;
+        OpenAIService delegate = prompt -> {
+            calls.incrementAndGet();
+            if (blockUpstream) {
+                awaitRelease();
+            }
+            if (failUpstream) {
+                throw new IllegalStateException("upstream down");
+            }
+            return nextResponse;
+        };
+        RoutineGenerator templates = prompt -> {
+            GeneratedRoutine routine = new GeneratedRoutine();
+            routine.setName("From template");
+            routine.setDetailLevel(DetailLevel.low);
+            return routine;
+        };
+        OpenAICircuitBreaker breaker = new OpenAICircuitBreaker(
+                meterRegistry, 2, Duration.ofSeconds(30), Duration.ofMinutes(1), clock::get);
+        // One upstream call at a time, nothing queued: the second distinct prompt is over capacity.
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        SimilarRoutineIndex similar = new SimilarRoutineIndex(new ObjectMapper(), meterRegistry, 0.8, 100, "", true);
+        service = new CachingOpenAIService(delegate, templates, similar, breaker, new ObjectMapper(), meterRegistry, executor,
+                100, Duration.ofHours(1), Duration.ofMillis(300), false, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void generateRoutine_shouldServeNearIdenticalPromptsFromCache() {
+        assertEquals(ROUTINE, service.generateRoutine("Morning routine for a runner"));
+        assertEquals(ROUTINE, service.generateRoutine("  morning routine, for a RUNNER!  "));
+        assertEquals(ROUTINE, service.generateRoutine("morning\troutine for a runner."));
+
+        assertEquals(1, calls.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", CachingOpenAIService.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", CachingOpenAIService.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void generateRoutine_shouldNotCacheInvalidOrEmptyResults() {
+        nextResponse = "Sorry, I can't help with that.";
+        service.generateRoutine("evening routine");
+        nextResponse = "{ \"detailLevel\": \"medium\", \"tasks\": [] }";
+        service.generateRoutine("evening routine");
+        nextResponse = ROUTINE;
+        service.generateRoutine("evening routine");
+        service.generateRoutine("evening routine");
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void cacheKey_shouldDifferForDifferentPrompts() {
+        String version = OpenAIServiceImpl.generationVersion(true);
+        assertEquals(CachingOpenAIService.cacheKey(version, "Study plan"), CachingOpenAIService.cacheKey(version, "study   plan?"));
+        assertNotEquals(CachingOpenAIService.cacheKey(version, "study plan"), CachingOpenAIService.cacheKey(version, "sleep plan"));
+        // Legacy output is never validated, so it must not be served in structured mode.
+        assertNotEquals(CachingOpenAIService.cacheKey(version, "study plan"),
+                CachingOpenAIService.cacheKey(OpenAIServiceImpl.generationVersion(false), "study plan"));
+        assertEquals("morning routine 7 30", CachingOpenAIService.normalize("Morning-routine @ 7:30"));
+    }
+
+    @Test
+    void generateRoutineAsync_shouldShareOneUpstreamCallBetweenIdenticalPrompts() throws Exception {
+        blockUpstream = true;
+        List<CompletableFuture<String>> callers = IntStream.range(0, 10)
+                .mapToObj(i -> service.generateRoutineAsync(i % 2 == 0 ? "Study plan" : "study   plan?"))
+                .toList();
+
+        release.countDown();
+        for (CompletableFuture<String> caller : callers) {
+            assertEquals(ROUTINE, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+
+        // Completed and cached: later callers don't reach the executor at all.
+        assertTrue(service.generateRoutineAsync("Study plan").isDone());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void generateRoutineAsync_shouldAnswerFromTemplatesWhenAtCapacity() throws Exception {
+        blockUpstream = true;
+        CompletableFuture<String> first = service.generateRoutineAsync("morning routine");
+
+        String overflow = service.generateRoutineAsync("evening routine").get(5, TimeUnit.SECONDS);
+        assertTrue(overflow.contains("From template"));
+
+        release.countDown();
+        assertEquals(ROUTINE, first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void generateRoutineAsync_shouldFallBackOnTimeoutButKeepTheUpstreamResult() throws Exception {
+        blockUpstream = true;
+        CompletableFuture<String> caller = service.generateRoutineAsync("weekend routine");
+
+        assertTrue(caller.get(5, TimeUnit.SECONDS).contains("From template"));
+
+        release.countDown();
+        executor.getThreadPoolExecutor().shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(ROUTINE, service.generateRoutineAsync("weekend routine").getNow(null));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void generateRoutine_shouldOpenCircuitAfterFailuresAndProbeAgainLater() {
+        failUpstream = true;
+        assertTrue(service.generateRoutine("plan a").contains("From template"));
+        assertTrue(service.generateRoutine("plan b").contains("From template"));
+        // Open: OpenAI is not called at all.
+        assertTrue(service.generateRoutine("plan c").contains("From template"));
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.circuit.open").gauge().value());
+
+        failUpstream = false;
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertEquals(ROUTINE, service.generateRoutine("plan c"));
+        assertEquals(ROUTINE, service.generateRoutine("plan d"));
+        assertEquals(4, calls.get());
+        assertEquals(0.0, meterRegistry.get("openai.circuit.open").gauge().value());
+    }
+
+    @Test
+    void streamRoutine_shouldLeaveCircuitOpenWhenTheClientLeavesDuringTheTrial() {
+        failUpstream = true;
+        service.generateRoutine("plan a");
+        service.generateRoutine("plan b");
+        failUpstream = false;
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        assertThrows(IllegalStateException.class, () -> service.streamRoutine("plan c", delta -> {
+            throw new IllegalStateException("client gone");
+        }));
+        assertEquals(1.0, meterRegistry.get("openai.circuit.open").gauge().value());
+
+        // The trial was not decided, so the next call is the trial.
+        assertEquals(ROUTINE, service.generateRoutine("plan d"));
+        assertEquals(4, calls.get());
+        assertEquals(0.0, meterRegistry.get("openai.circuit.open").gauge().value());
+    }
+
+    @Test
+    void generateRoutine_shouldReuseRoutineOfNearIdenticalPrompt() {
+        assertEquals(ROUTINE, service.generateRoutine("A calm morning routine for a marathon runner"));
+        assertEquals(ROUTINE, service.generateRoutine("calm morning routine for marathon runners"));
+        nextResponse = "{\"detailLevel\":\"low\",\"tasks\":[{\"title\":\"Read\"}]}";
+        assertNotEquals(ROUTINE, service.generateRoutine("evening reading habit for students"));
+
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("openai.routine.similar").tag("result", "reused").counter().count());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.SyncTombstoneRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Base for service tests whose changes have to really commit: after-commit listeners (cache
+ * invalidation, notifications, sync stamps) only run then, so rows are removed after each test
+ * instead of being rolled back. Runs as a non-admin owner; subclasses @Import the services they
+ * add on top of the routine and task services.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        RoutineServiceImpl.class, TaskServiceImpl.class, TaskPositionAllocator.class, PageSize.class,
+        RoutineReadCache.class, SimpleMeterRegistry.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class CommittingServiceTest {
+
+    @Autowired
+    protected UserRepo userRepo;
+
+    @Autowired
+    protected RoutineRepo routineRepo;
+
+    @Autowired
+    protected TaskRepo taskRepo;
+
+    @Autowired
+    private SyncTombstoneRepo tombstoneRepo;
+
+    @MockitoBean
+    protected AuthService authService;
+
+    protected User owner;
+
+    @BeforeEach
+    void setUpOwner() {
+        owner = userRepo.save(new User("owner@example.com", "hash", "Owner"));
+        Mockito.when(authService.isCurrentUserAdmin()).thenReturn(false);
+        actAs(owner);
+    }
+
+    @AfterEach
+    void deleteRows() {
+        tombstoneRepo.deleteAllInBatch();
+        taskRepo.deleteAllInBatch();
+        routineRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    protected void actAs(User user) {
+        Mockito.when(authService.getCurrentUserId()).thenReturn(user.getUserId());
+    }
+
+    /**
+     * A new routine of the owner's.
+     */
+    protected Routine routine(String name) {
+        return ServiceFixtures.routine(owner, name);
+    }
+}
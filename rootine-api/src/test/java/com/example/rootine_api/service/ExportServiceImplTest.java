@@ -0,0 +1,277 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineExportRow;
+import com.example.rootine_api.enums.DetailLevel;
+import com.example.rootine_api.enums.Priority;
+import com.example.rootine_api.enums.TaskType;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs on its own H2 database capped at 10,000 in-memory result rows. Embedded H2 ignores the fetch
+ * size and sorts a whole result before returning its first row; past the cap it spills that result to
+ * a temp file instead of the heap, so the heap checks measure what the export itself keeps per row.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:rootine-export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+        + "NON_KEYWORDS=USER,VALUE;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1;MAX_MEMORY_ROWS=10000")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(ExportServiceImpl.class)
+class ExportServiceImplTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User("export@example.com", "hash", "Export"));
+        User other = userRepo.save(new User("other@example.com", "hash", "Other"));
+
+        routineRepo.save(routine(owner, "Morning", true, "Stretch", "Shower"));
+        routineRepo.save(routine(owner, "Empty", false));
+        routineRepo.save(routine(other, "Not mine", false, "Hidden"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportUser_shouldWriteOneRoutinePerLineWithNestedTasks() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUser(owner.getUserId(), out, false);
+
+        List<JsonNode> lines = parseLines(out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, lines.size());
+        assertEquals("Morning", lines.get(0).get("name").asText());
+        assertTrue(lines.get(0).get("isActive").asBoolean());
+        assertEquals(List.of("Stretch", "Shower"),
+                lines.get(0).get("tasks").findValuesAsText("title"));
+        assertEquals("routine", lines.get(0).get("tasks").get(0).get("taskType").asText());
+        assertEquals("Empty", lines.get(1).get("name").asText());
+        assertEquals(0, lines.get(1).get("tasks").size());
+    }
+
+    @Test
+    void exportUser_shouldGzipWhenRequested() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUser(owner.getUserId(), out, true);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(2, parseLines(new String(in.readAllBytes(), StandardCharsets.UTF_8)).size());
+        }
+    }
+
+    @Test
+    void exportAll_shouldIncludeEveryUser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAll(out, false);
+
+        assertEquals(3, parseLines(out.toString(StandardCharsets.UTF_8)).size());
+    }
+
+    @Test
+    void exportUser_shouldUseBoundedHeap_forAMillionTasks() throws Exception {
+        int routines = 10_000;
+        int tasksPerRoutine = 100;
+        int tasks = routines * tasksPerRoutine;
+        // Ids far above the sequences' range, so they cannot collide with rows saved in setUp.
+        // SYSTEM_RANGE's column is upper-case X, which DATABASE_TO_LOWER leaves to quoting.
+        jdbcTemplate.update(
+                "INSERT INTO routine (routine_id, user_id, name, is_active) "
+                        + "SELECT 1000000 + \"X\", ?, CONCAT('Routine ', \"X\"), FALSE FROM SYSTEM_RANGE(1, ?)",
+                owner.getUserId(), routines);
+        jdbcTemplate.update(
+                "INSERT INTO task (task_id, routine_id, title, description, duration, position) "
+                        + "SELECT 1000000 + \"X\", 1000001 + (\"X\" - 1) / ?, CONCAT('Task ', \"X\"), "
+                        + "'Streamed task', 15, \"X\" FROM SYSTEM_RANGE(1, ?)",
+                tasksPerRoutine, tasks);
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(16 * 1024 * 1024);
+
+        exportService.exportUser(owner.getUserId(), out, false);
+
+        // Morning and Empty from setUp come first
+        assertEquals(routines + 2, out.lines);
+        assertTrue(out.count > 100_000_000L, "expected a large export, got " + out.count + " bytes");
+        long growth = out.maxHeap - out.firstHeap;
+        assertTrue(growth < 16 * 1024 * 1024,
+                "heap grew by " + growth / 1024 + " KiB after the first " + out.sampleEvery / (1024 * 1024)
+                        + " MiB of a " + out.count / (1024 * 1024) + " MiB export");
+    }
+
+    /**
+     * Isolates RoutineExportWriter from the database: a lazily generated Stream of a million rows.
+     * The repository path is covered by exportUser_shouldUseBoundedHeap_forAMillionTasks.
+     */
+    @Test
+    void writer_shouldUseBoundedHeap_forAMillionSyntheticRows() throws Exception {
+        int routines = 10_000;
+        int tasksPerRoutine = 100;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] heapAt = new long[2];
+
+        // Heap is sampled mid-export and at the end.
+        Stream<RoutineExportRow> rows = IntStream.range(0, routines * tasksPerRoutine)
+                .mapToObj(i -> {
+                    if (i == 100_000) {
+                        heapAt[0] = usedHeapAfterGc(memory);
+                    } else if (i == routines * tasksPerRoutine - 1) {
+                        heapAt[1] = usedHeapAfterGc(memory);
+                    }
+                    return syntheticRow(i / tasksPerRoutine, i);
+                });
+        CountingOutputStream out = new CountingOutputStream();
+
+        long written = new RoutineExportWriter(objectMapper).write(rows, out);
+
+        assertEquals(routines, written);
+        assertTrue(out.count > 100_000_000L, "expected a large export, got " + out.count + " bytes");
+        long growth = heapAt[1] - heapAt[0];
+        assertTrue(growth < 16 * 1024 * 1024,
+                "heap grew by " + growth / 1024 + " KiB while writing 900k more tasks");
+    }
+
+    private List<JsonNode> parseLines(String ndjson) throws Exception {
+        List<String> lines = ndjson.lines().toList();
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String line : lines) {
+            nodes.add(objectMapper.readTree(line));
+        }
+        return nodes;
+    }
+
+    private static Routine routine(User user, String name, boolean active, String... taskTitles) {
+        Routine routine = new Routine();
+        routine.setName(name);
+        routine.setUser(user);
+        routine.setIsActive(active);
+        for (int i = 0; i < taskTitles.length; i++) {
+            Task task = new Task();
+            task.setTitle(taskTitles[i]);
+            task.setPosition(i * TaskPositionAllocator.POSITION_GAP);
+            task.setRoutine(routine);
+            routine.getTasks().add(task);
+        }
+        return routine;
+    }
+
+    private static RoutineExportRow syntheticRow(int routineId, int taskId) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 8, 0);
+        return new RoutineExportRow(
+                routineId, 1, "Routine " + routineId, null, DetailLevel.medium, false, now,
+                taskId, "Task " + taskId, "Synthetic task", TaskType.routine, LocalTime.of(7, 30),
+                15, Priority.medium, false, taskId * TaskPositionAllocator.POSITION_GAP, now
+        );
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Counts bytes and lines, and samples used heap after GC each time another sampleEvery bytes
+     * have been written, i.e. while the export is still reading rows.
+     */
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final long sampleEvery;
+        private long count;
+        private long lines;
+        private long firstHeap = -1;
+        private long maxHeap;
+
+        private HeapSamplingOutputStream(long sampleEvery) {
+            this.sampleEvery = sampleEvery;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+            long before = count;
+            count += len;
+            if (count / sampleEvery > before / sampleEvery) {
+                long used = usedHeapAfterGc(memory);
+                if (firstHeap < 0) {
+                    firstHeap = used;
+                }
+                maxHeap = Math.max(maxHeap, used);
+            }
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.ImportReport;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "rootine.import.chunk-size=100")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ImportServiceImpl.class, RoutineRecordMapper.class, SyncVersionTracker.class})
+// Imports commit their own chunk transactions, so the test must not wrap them in one.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportServiceImplTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User(UUID.randomUUID() + "@example.com", "hash", "Import"));
+    }
+
+    // Nothing rolls back here, and the migrated schema is shared by every test class.
+    @AfterEach
+    void tearDown() {
+        taskRepo.deleteAllInBatch();
+        routineRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void importRoutines_shouldImportValidRecordsAndReportInvalidOnes() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) {
+            ndjson.append("""
+                    {"name":"Routine %d","detailLevel":"high","tasks":[\
+                    {"title":"A","taskType":"habit","priority":"low","startTime":"07:30","duration":10},\
+                    {"title":"B"},{"title":"C"},{"title":"D"},{"title":"E","isCompleted":true}]}
+                    """.formatted(i));
+            if (i == 10) {
+                ndjson.append("{\"name\":\"Bad task\",\"tasks\":[{\"title\":\"X\",\"taskType\":\"chore\"}]}\n");
+            } else if (i == 500) {
+                ndjson.append("{\"description\":\"no name\"}\n");
+            } else if (i == 999) {
+                ndjson.append("{\"name\":\"Bad level\",\"detailLevel\":\"extreme\"}\n");
+            }
+        }
+
+        ImportReport report = importService.importRoutines(owner.getUserId(), stream(ndjson.toString()));
+
+        assertEquals(1003, report.getReceived());
+        assertEquals(1000, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(11L, 502L, 1002L),
+                report.getErrors().stream().map(ImportReport.RecordError::getRecord).toList());
+        assertTrue(report.getErrors().get(0).getMessage().contains("tasks[0].taskType"));
+        assertTrue(report.getRecordsPerSecond() > 0);
+
+        List<Integer> routineIds = routineRepo.findPageIdsByUserId(owner.getUserId(),
+                Limit.of(2000));
+        assertEquals(1000, routineIds.size());
+        List<Task> tasks = taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(routineIds.get(0));
+        assertEquals(List.of("A", "B", "C", "D", "E"), tasks.stream().map(Task::getTitle).toList());
+        assertEquals(4 * TaskPositionAllocator.POSITION_GAP, tasks.get(4).getPosition());
+    }
+
+    @Test
+    void importRoutines_shouldAcceptJsonArray_andKeepOnlyTheLastActiveRoutine() throws Exception {
+        String json = """
+                [
+                  {"name":"First","isActive":true},
+                  {"name":"Second","isActive":true,"tasks":[]},
+                  {"name":"Third","isActive":false}
+                ]
+                """;
+
+        ImportReport report = importService.importRoutines(owner.getUserId(), stream(json));
+
+        assertEquals(3, report.getImported());
+        List<Routine> active = routineRepo.findAll().stream()
+                .filter(routine -> Boolean.TRUE.equals(routine.getIsActive()))
+                .filter(routine -> routine.getName().equals("First") || routine.getName().equals("Second"))
+                .toList();
+        assertEquals(List.of("Second"), active.stream().map(Routine::getName).toList());
+    }
+
+    @Test
+    void importRoutines_shouldKeepRecordsReadBeforeMalformedJson() throws Exception {
+        String ndjson = """
+                {"name":"Kept 1"}
+                {"name":"Kept 2"}
+                {"name": oops}
+                {"name":"Never read"}
+                """;
+
+        ImportReport report = importService.importRoutines(owner.getUserId(), stream(ndjson));
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getRecord());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("malformed JSON"));
+    }
+
+    @Test
+    void importRoutines_shouldCountTheRecordBrokenBetweenRecords() throws Exception {
+        String ndjson = """
+                {"name":"Kept"}
+                }
+                {"name":"Never read"}
+                """;
+
+        ImportReport report = importService.importRoutines(owner.getUserId(), stream(ndjson));
+
+        assertEquals(2, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRecord());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
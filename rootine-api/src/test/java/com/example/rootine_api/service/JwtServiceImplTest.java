@@ -0,0 +1,73 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.TokenRevocationRepo;
+import com.example.rootine_api.security.JwtPrincipal;
+import com.example.rootine_api.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceImplTest {
+
+    private final TokenRevocationService tokenRevocationService =
+            new TokenRevocationService(Mockito.mock(TokenRevocationRepo.class));
+    private final JwtServiceImpl jwtService = new JwtServiceImpl(tokenRevocationService);
+
+    @Test
+    void generateToken_shouldCarryPrincipalClaims_forUserEntity() {
+        User user = new User("test@example.com", "hash", "Test");
+        user.setUserId(42);
+        user.setUuid(UUID.randomUUID());
+
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+        JwtPrincipal principal = jwtService.extractPrincipal(claims);
+
+        assertNotNull(principal);
+        assertEquals(42, principal.userId());
+        assertEquals(user.getUuid(), principal.uuid());
+        assertEquals("test@example.com", principal.getName());
+        assertTrue(principal.authorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        assertTrue(jwtService.isTokenValid(claims));
+    }
+
+    @Test
+    void parseClaims_shouldReturnCachedClaims_forRepeatToken() {
+        User user = new User("test@example.com", "hash", "Test");
+        user.setUserId(1);
+        String token = jwtService.generateToken(user);
+
+        assertSame(jwtService.parseClaims(token), jwtService.parseClaims(token));
+    }
+
+    @Test
+    void isTokenValid_shouldRejectTokenIssuedBeforeRevocation() {
+        User user = new User("test@example.com", "hash", "Test");
+        user.setUserId(7);
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(user));
+
+        tokenRevocationService.revokeAllForUser(7);
+
+        assertFalse(jwtService.isTokenValid(claims));
+    }
+
+    @Test
+    void isTokenValid_shouldAcceptTokenIssuedInTheSameSecondAsRevocation() {
+        User user = new User("test@example.com", "hash", "Test");
+        user.setUserId(8);
+        Claims before = jwtService.parseClaims(jwtService.generateToken(user));
+
+        long revokedAtSecond = System.currentTimeMillis() / 1000;
+        tokenRevocationService.revokeAllForUser(8);
+        Claims after = jwtService.parseClaims(jwtService.generateToken(user));
+
+        // Unless the second rolled over in between, both tokens carry the same wall-clock second.
+        assertTrue(after.getIssuedAt().getTime() / 1000 > revokedAtSecond);
+        assertFalse(jwtService.isTokenValid(before));
+        assertTrue(jwtService.isTokenValid(after));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.GeneratedRoutine;
+import com.example.rootine_api.enums.TaskType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.client.OpenAIClient;
+import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import com.openai.models.chat.completions.ChatCompletionMessage;
+import com.openai.models.completions.CompletionUsage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OpenAIServiceImplTest {
+
+    private static final String ROUTINE = """
+            {"name":"Runner","detailLevel":"medium","description":"","tasks":[
+              {"title":"Run","description":"","taskType":"habit","startTime":"06:30:00","duration":30,"priority":"high"}
+            ]}
+            """;
+
+    private final OpenAIClient client = mock(OpenAIClient.class, RETURNS_DEEP_STUBS);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void buildParams_structuredModeShouldSendSchemaAndCompactInstructions() {
+        ChatCompletionCreateParams structured = new OpenAIServiceImpl(client, objectMapper, true).buildParams("Runner", false);
+        ChatCompletionCreateParams legacy = new OpenAIServiceImpl(client, objectMapper, false).buildParams("Runner", false);
+
+        assertTrue(structured.responseFormat().orElseThrow().isJsonSchema());
+        assertTrue(structured.responseFormat().orElseThrow().asJsonSchema().jsonSchema().strict().orElse(false));
+        assertTrue(legacy.responseFormat().isEmpty());
+        assertTrue(OpenAIServiceImpl.STRUCTURED_INSTRUCTIONS.length() * 3 < legacy.messages().get(0).asUser().content().asText().length());
+    }
+
+    @Test
+    void generateRoutine_shouldReturnValidatedRoutine() {
+        when(client.chat().completions().create(any(ChatCompletionCreateParams.class))).thenReturn(completion(ROUTINE));
+        OpenAIServiceImpl service = new OpenAIServiceImpl(client, objectMapper, true);
+
+        GeneratedRoutine routine = service.generate("Morning routine for a runner");
+
+        assertEquals("Runner", routine.getName());
+        assertEquals(TaskType.habit, routine.getTasks().get(0).getTaskType());
+        ArgumentCaptor<ChatCompletionCreateParams> params = ArgumentCaptor.forClass(ChatCompletionCreateParams.class);
+        verify(client.chat().completions()).create(params.capture());
+        assertEquals("Morning routine for a runner", params.getValue().messages().get(1).asUser().content().asText());
+    }
+
+    @Test
+    void generateRoutine_shouldRejectValuesTheSchemaCannotExpress() {
+        when(client.chat().completions().create(any(ChatCompletionCreateParams.class)))
+                .thenReturn(completion(ROUTINE.replace("06:30:00", "6.30pm")));
+        OpenAIServiceImpl service = new OpenAIServiceImpl(client, objectMapper, true);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> service.generateRoutine("x"));
+        assertEquals("tasks[0].startTime must be HH:mm:ss", error.getMessage());
+    }
+
+    private static ChatCompletion completion(String content) {
+        return ChatCompletion.builder()
+                .id("chatcmpl-test")
+                .created(0)
+                .model(OpenAIServiceImpl.MODEL.asString())
+                .addChoice(ChatCompletion.Choice.builder()
+                        .index(0)
+                        .finishReason(ChatCompletion.Choice.FinishReason.STOP)
+                        .logprobs((ChatCompletion.Choice.Logprobs) null)
+                        .message(ChatCompletionMessage.builder().content(content).refusal((String) null).build())
+                        .build())
+                .usage(CompletionUsage.builder().promptTokens(120).completionTokens(80).totalTokens(200).build())
+                .build();
+    }
+}
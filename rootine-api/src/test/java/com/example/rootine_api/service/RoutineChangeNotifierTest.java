@@ -0,0 +1,109 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static com.example.rootine_api.service.ServiceFixtures.task;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+
+@Import(RoutineChangeNotifier.class)
+class RoutineChangeNotifierTest extends CommittingServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private SimpMessagingTemplate messagingTemplate;
+
+    private Routine routine;
+
+    @BeforeEach
+    void setUp() {
+        routine = routineRepo.save(routine("Morning"));
+    }
+
+    @Test
+    void addTask_shouldPushToOwner_onlyAfterCommit() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Task saved = transaction.execute(status -> {
+            Task task = taskService.addTask(routine.getRoutineId(), task("Stretch"));
+            Mockito.verifyNoInteractions(messagingTemplate);
+            return task;
+        });
+
+        RoutineChangeEvent event = sentEvent();
+        assertEquals(owner.getUserId(), event.userId());
+        assertEquals(RoutineChangeEvent.Entity.TASK, event.entity());
+        assertEquals(RoutineChangeEvent.Action.CREATED, event.action());
+        assertEquals(routine.getRoutineId(), event.routineId());
+        assertEquals(saved.getTaskId(), event.taskId());
+    }
+
+    @Test
+    void addTask_shouldNotPush_whenTransactionRollsBack() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            taskService.addTask(routine.getRoutineId(), task("Stretch"));
+            status.setRollbackOnly();
+        });
+
+        Mockito.verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void deleteTask_shouldReportRoutineOfDeletedTask() {
+        Task saved = taskService.addTask(routine.getRoutineId(), task("Stretch"));
+        Mockito.clearInvocations(messagingTemplate);
+
+        taskService.deleteTask(saved.getTaskId());
+
+        RoutineChangeEvent event = sentEvent();
+        assertEquals(RoutineChangeEvent.Action.DELETED, event.action());
+        assertEquals(routine.getRoutineId(), event.routineId());
+        assertEquals(saved.getTaskId(), event.taskId());
+    }
+
+    @Test
+    void reorderAndActivate_shouldEachPushOneRoutineLevelEvent() {
+        Task first = taskService.addTask(routine.getRoutineId(), task("First"));
+        Task second = taskService.addTask(routine.getRoutineId(), task("Second"));
+        Mockito.clearInvocations(messagingTemplate);
+
+        taskService.reorderTasks(routine.getRoutineId(), List.of(second.getTaskId(), first.getTaskId()));
+        assertEquals(RoutineChangeEvent.Action.REORDERED, sentEvent().action());
+
+        Mockito.clearInvocations(messagingTemplate);
+        routineService.activateRoutine(routine.getRoutineId());
+        RoutineChangeEvent event = sentEvent();
+        assertEquals(RoutineChangeEvent.Entity.ROUTINE, event.entity());
+        assertEquals(RoutineChangeEvent.Action.ACTIVATED, event.action());
+        assertNull(event.taskId());
+    }
+
+    private RoutineChangeEvent sentEvent() {
+        ArgumentCaptor<RoutineChangeEvent> event = ArgumentCaptor.forClass(RoutineChangeEvent.class);
+        Mockito.verify(messagingTemplate).convertAndSendToUser(
+                eq(owner.getUserId().toString()), eq(RoutineChangeNotifier.DESTINATION), event.capture());
+        return event.getValue();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, TaskExecutionAutoConfiguration.class})
+@Import({RoutineGenerationServiceImpl.class, RoutineRecordMapper.class})
+// The service commits its own transaction on another thread, so the test must not wrap it in one.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoutineGenerationServiceImplTest {
+
+    private static final String GENERATED = """
+            {"name":"Runner","detailLevel":"high","description":"","tasks":[
+              {"title":"Warm up","description":"","taskType":"habit","startTime":"06:00:00","duration":10,"priority":"medium"},
+              {"title":"Run","description":"","taskType":"habit","startTime":"06:10:00","duration":30,"priority":"high"},
+              {"title":"Stretch","description":"","taskType":"habit","startTime":"06:45:00","duration":15,"priority":"low"}
+            ]}
+            """;
+
+    @Autowired
+    private RoutineGenerationService routineGenerationService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    @MockitoBean
+    private OpenAIService openAIService;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User(UUID.randomUUID() + "@example.com", "hash", "Generate"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepo.deleteAllInBatch();
+        routineRepo.deleteAllInBatch();
+        userRepo.deleteAllInBatch();
+    }
+
+    @Test
+    void generateAndSave_shouldPersistRoutineWithTasksForTheUser() throws Exception {
+        when(openAIService.generateRoutineAsync("morning run")).thenReturn(CompletableFuture.completedFuture(GENERATED));
+
+        Routine saved = routineGenerationService.generateAndSave(owner.getUserId(), "morning run").get(5, TimeUnit.SECONDS);
+
+        assertNotNull(saved.getRoutineId());
+        assertEquals(3, saved.getTasks().size());
+        assertTrue(routineRepo.existsByRoutineIdAndUserUserId(saved.getRoutineId(), owner.getUserId()));
+        List<Task> tasks = taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(saved.getRoutineId());
+        assertEquals(List.of("Warm up", "Run", "Stretch"), tasks.stream().map(Task::getTitle).toList());
+        assertEquals(List.of(0, TaskPositionAllocator.POSITION_GAP, 2 * TaskPositionAllocator.POSITION_GAP),
+                tasks.stream().map(Task::getPosition).toList());
+    }
+
+    @Test
+    void generateAndSave_shouldNameUnnamedRoutinesAfterThePrompt() throws Exception {
+        when(openAIService.generateRoutineAsync("  study   plan ")).thenReturn(CompletableFuture.completedFuture(
+                "{\"detailLevel\":\"medium\",\"tasks\":[{\"title\":\"Read\",\"duration\":25}]}"));
+
+        Routine saved = routineGenerationService.generateAndSave(owner.getUserId(), "  study   plan ").get(5, TimeUnit.SECONDS);
+
+        assertEquals("study plan", saved.getName());
+    }
+
+    @Test
+    void generateAndSave_shouldRejectInvalidOutputWithoutSaving() {
+        when(openAIService.generateRoutineAsync("bad")).thenReturn(CompletableFuture.completedFuture(
+                "{\"name\":\"Bad\",\"tasks\":[{\"title\":\"X\",\"taskType\":\"chore\"}]}"));
+        long before = routineRepo.count();
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> routineGenerationService.generateAndSave(owner.getUserId(), "bad").get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+        assertTrue(error.getCause().getMessage().startsWith("tasks[0].taskType"));
+        assertEquals(before, routineRepo.count());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static com.example.rootine_api.service.ServiceFixtures.task;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineReadCacheTest extends CommittingServiceTest {
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        other = userRepo.save(new User("other@example.com", "hash", "Other"));
+    }
+
+    @Test
+    void getRoutineById_shouldBeServedFromCache_untilRoutineIsUpdated() {
+        Routine routine = routineService.addRoutine(routine("Morning"));
+
+        Routine first = routineService.getRoutineById(routine.getRoutineId());
+        double hits = routineHits();
+        assertSame(first, routineService.getRoutineById(routine.getRoutineId()));
+        assertEquals(hits + 1, routineHits());
+
+        routineService.updateRoutine(routine.getRoutineId(), ServiceFixtures.routine(null, "Evening"));
+
+        assertEquals("Evening", routineService.getRoutineById(routine.getRoutineId()).getName());
+    }
+
+    @Test
+    void getTasksByRoutineId_shouldReflectReorder_andBeUnmodifiable() {
+        Routine routine = routineService.addRoutine(routine("Morning"));
+        Task first = taskService.addTask(routine.getRoutineId(), task("First"));
+        Task second = taskService.addTask(routine.getRoutineId(), task("Second"));
+
+        List<Task> cached = taskService.getTasksByRoutineId(routine.getRoutineId(), null, null).getItems();
+        assertEquals(List.of("First", "Second"), cached.stream().map(Task::getTitle).toList());
+        assertThrows(UnsupportedOperationException.class, () -> cached.add(task("Third")));
+        assertTrue(meterRegistry.get("cache.rows").tag("cache", RoutineReadCache.ROUTINE_TASKS).gauge().value() >= 3);
+
+        taskService.reorderTasks(routine.getRoutineId(), List.of(second.getTaskId(), first.getTaskId()));
+
+        assertEquals(List.of("Second", "First"), taskService.getTasksByRoutineId(routine.getRoutineId(), null, null)
+                .getItems().stream().map(Task::getTitle).toList());
+    }
+
+    @Test
+    void getTaskById_shouldReflectActivationAndDelete() {
+        Routine routine = routineService.addRoutine(routine("Morning"));
+        Task task = taskService.addTask(routine.getRoutineId(), task("Stretch"));
+        assertFalse(routineService.getRoutineById(routine.getRoutineId()).getIsActive());
+        taskService.getTaskById(task.getTaskId());
+
+        routineService.activateRoutine(routine.getRoutineId());
+        assertTrue(routineService.getRoutineById(routine.getRoutineId()).getIsActive());
+
+        taskService.deleteTask(task.getTaskId());
+        assertThrows(RuntimeException.class, () -> taskService.getTaskById(task.getTaskId()));
+    }
+
+    @Test
+    void changes_shouldOnlyDropTheOwnersEntries() {
+        Routine mine = routineService.addRoutine(routine("Mine"));
+        Routine theirs = routineService.addRoutine(ServiceFixtures.routine(other, "Theirs"));
+        actAs(other);
+        Routine theirsCached = routineService.getRoutineById(theirs.getRoutineId());
+
+        actAs(owner);
+        routineService.updateRoutine(mine.getRoutineId(), ServiceFixtures.routine(null, "Still mine"));
+
+        actAs(other);
+        assertSame(theirsCached, routineService.getRoutineById(theirs.getRoutineId()));
+        // The cache key is not enough to read someone else's routine.
+        assertThrows(RuntimeException.class, () -> routineService.getRoutineById(mine.getRoutineId()));
+    }
+
+    private double routineHits() {
+        return meterRegistry.get("cache.gets")
+                .tags("cache", RoutineReadCache.ROUTINES, "result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
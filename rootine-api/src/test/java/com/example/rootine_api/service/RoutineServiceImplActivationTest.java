@@ -0,0 +1,119 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.User;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineServiceImplActivationTest extends CommittingServiceTest {
+
+    private static final int THREADS = 16;
+    private static final int ACTIVATIONS = 800;
+    private static final int ROUTINES = 8;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Routine> routines = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ROUTINES; i++) {
+            routines.add(routineRepo.save(routine("Routine " + i)));
+        }
+    }
+
+    @Test
+    void activateRoutine_shouldLeaveExactlyOneActive_underConcurrentActivations() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Integer>> activations = new ArrayList<>();
+        for (int i = 0; i < ACTIVATIONS; i++) {
+            Integer routineId = routines.get(i % ROUTINES).getRoutineId();
+            activations.add(() -> routineService.activateRoutine(routineId).getRoutineId());
+        }
+
+        try {
+            for (Future<Integer> result : pool.invokeAll(activations)) {
+                assertNotNull(result.get()); // none gave up
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(1, activeRoutines());
+    }
+
+    @Test
+    void activateRoutine_shouldSwitchTheActiveRoutine() {
+        Routine first = routines.get(0);
+        Routine second = routines.get(1);
+
+        assertTrue(routineService.activateRoutine(first.getRoutineId()).getIsActive());
+        assertTrue(routineService.activateRoutine(second.getRoutineId()).getIsActive());
+        // Activating the active routine again is a no-op, not a conflict.
+        routineService.activateRoutine(second.getRoutineId());
+
+        assertFalse(routineRepo.findById(first.getRoutineId()).orElseThrow().getIsActive());
+        assertEquals(1, activeRoutines());
+    }
+
+    @Test
+    void activateRoutine_shouldNotTouchAnything_whenTheRoutineIsSomeoneElses() {
+        Routine mine = routines.get(0);
+        routineService.activateRoutine(mine.getRoutineId());
+        User other = userRepo.save(new User("other@example.com", "hash", "Other"));
+        Routine theirs = routineRepo.save(ServiceFixtures.routine(other, "Theirs"));
+
+        assertThrows(EntityNotFoundException.class, () -> routineService.activateRoutine(theirs.getRoutineId()));
+
+        assertTrue(routineRepo.findById(mine.getRoutineId()).orElseThrow().getIsActive());
+        assertFalse(routineRepo.findById(theirs.getRoutineId()).orElseThrow().getIsActive());
+    }
+
+    @Test
+    void addAndUpdate_shouldSwitchTheActiveRoutineToo() {
+        routineService.activateRoutine(routines.get(0).getRoutineId());
+
+        Routine created = routine("Created active");
+        created.setIsActive(true);
+        created = routineService.addRoutine(created);
+        assertEquals(1, activeRoutines());
+
+        Routine updates = new Routine();
+        updates.setIsActive(true);
+        routineService.updateRoutine(routines.get(1).getRoutineId(), updates);
+
+        assertFalse(routineRepo.findById(created.getRoutineId()).orElseThrow().getIsActive());
+        assertTrue(routineRepo.findById(routines.get(1).getRoutineId()).orElseThrow().getIsActive());
+        assertEquals(1, activeRoutines());
+    }
+
+    @Test
+    void database_shouldRejectASecondActiveRoutine() {
+        routineService.activateRoutine(routines.get(0).getRoutineId());
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "UPDATE routine SET is_active = TRUE WHERE routine_id = ?", routines.get(1).getRoutineId()));
+    }
+
+    private int activeRoutines() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM routine WHERE user_id = ? AND is_active = TRUE", Integer.class, owner.getUserId());
+    }
+}
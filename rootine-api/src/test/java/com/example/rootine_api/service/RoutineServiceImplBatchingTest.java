@@ -0,0 +1,70 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.AuthService;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RoutineServiceImpl.class, PageSize.class, RoutineReadCache.class, SimpleMeterRegistry.class})
+class RoutineServiceImplBatchingTest {
+
+    private static final int TASKS = 100;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private AuthService authService;
+
+    @Test
+    void addRoutine_shouldInsertNestedTasksInBatches() {
+        User owner = userRepo.save(new User("batch@example.com", "hash", "Batch"));
+        entityManager.flush();
+
+        Routine routine = new Routine();
+        routine.setName("Batched");
+        routine.setUser(owner);
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setRoutine(routine);
+            routine.getTasks().add(task);
+        }
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        routineService.addRoutine(routine);
+        entityManager.flush();
+
+        assertEquals(TASKS + 1, statistics.getEntityInsertCount());
+        // 101 rows: a few id-block fetches plus one prepared statement per insert batch,
+        // instead of one round trip per row.
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 8, "expected a handful of statements, got " + statements);
+    }
+}
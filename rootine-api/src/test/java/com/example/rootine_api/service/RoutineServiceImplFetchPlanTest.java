@@ -0,0 +1,157 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.AuthService;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RoutineServiceImpl.class, TaskServiceImpl.class, TaskPositionAllocator.class, PageSize.class, RoutineReadCache.class, SimpleMeterRegistry.class})
+class RoutineServiceImplFetchPlanTest {
+
+    private static final int ROUTINES = 20;
+    private static final int TASKS_PER_ROUTINE = 5;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private User owner;
+    private List<Integer> taskIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepo.save(new User("fetch@example.com", "hash", "Fetch"));
+        Mockito.when(authService.isCurrentUserAdmin()).thenReturn(false);
+        Mockito.when(authService.getCurrentUserId()).thenReturn(owner.getUserId());
+
+        taskIds = new ArrayList<>();
+        for (int r = 0; r < ROUTINES; r++) {
+            Routine routine = new Routine();
+            routine.setName("Routine " + r);
+            routine.setUser(owner);
+            for (int t = 0; t < TASKS_PER_ROUTINE; t++) {
+                Task task = new Task();
+                task.setTitle("Task " + t);
+                task.setRoutine(routine);
+                routine.getTasks().add(task);
+            }
+            routineService.addRoutine(routine).getTasks().forEach(task -> taskIds.add(task.getTaskId()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void getRoutinesByUserId_shouldLoadRoutinesAndTasksInTwoQueries() {
+        Statistics statistics = statistics();
+
+        List<Routine> routines = routineService.getRoutinesByUserId(owner.getUserId(), null, ROUTINES).getItems();
+        // What Jackson does when serializing the response
+        int tasks = routines.stream().mapToInt(routine -> routine.getTasks().size()).sum();
+
+        assertEquals(ROUTINES, routines.size());
+        assertEquals(ROUTINES * TASKS_PER_ROUTINE, tasks);
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "expected at most 2 queries, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllRoutines_shouldNotQueryTasksPerRoutine() {
+        Statistics statistics = statistics();
+
+        List<Routine> routines = routineService.getAllRoutines(null, ROUTINES).getItems();
+        routines.forEach(routine -> routine.getTasks().size());
+
+        assertEquals(ROUTINES, routines.size());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "expected at most 2 queries, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getRoutinesByUserId_shouldWalkAllPagesInKeysetOrder() {
+        List<Integer> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            Statistics statistics = statistics();
+            KeysetPage<Routine> page = routineService.getRoutinesByUserId(owner.getUserId(), cursor, 7);
+            page.getItems().forEach(routine -> {
+                assertEquals(TASKS_PER_ROUTINE, routine.getTasks().size());
+                seen.add(routine.getRoutineId());
+            });
+            // Same cost on every page, however deep
+            assertEquals(2, statistics.getPrepareStatementCount());
+            cursor = page.getNextCursor();
+            pages++;
+            entityManager.clear();
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(ROUTINES, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    void getRoutinesByUserId_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> routineService.getRoutinesByUserId(owner.getUserId(), "not-a-cursor", 5));
+    }
+
+    @Test
+    void taskReads_shouldNotLoadTheRoutine() {
+        Statistics statistics = statistics();
+
+        Task task = taskService.getTaskById(taskIds.get(0));
+        List<Task> all = taskRepo.findAll();
+
+        assertFalse(Hibernate.isInitialized(task.getRoutine()));
+        assertTrue(all.stream().noneMatch(t -> Hibernate.isInitialized(t.getRoutine())));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineTimeline;
+import com.example.rootine_api.dto.RoutineTimeline.Gap;
+import com.example.rootine_api.dto.RoutineTimeline.Overlap;
+import com.example.rootine_api.dto.RoutineTimeline.Slot;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import(RoutineTimelineServiceImpl.class)
+class RoutineTimelineServiceImplTest extends CommittingServiceTest {
+
+    @Autowired
+    private RoutineTimelineService timelineService;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void layOut_shouldOrderSlots_andFindGapsOverlapsAndUnscheduledTasks() {
+        Routine routine = new Routine();
+        routine.setRoutineId(1);
+        routine.setName("Day");
+        // Routine order differs from time order on purpose.
+        routine.setTasks(List.of(
+                task(10, "Late", "23:30", 60),
+                task(11, "Whenever", null, 10),
+                task(12, "Coffee", "08:00", 15),
+                task(13, "Run", "07:00", 30),
+                task(14, "Stretch", "07:15", 30),
+                task(15, "Alarm", "07:15", null)
+        ));
+
+        RoutineTimeline timeline = RoutineTimelineServiceImpl.layOut(routine);
+
+        assertEquals(List.of("Run", "Stretch", "Alarm", "Coffee", "Late"),
+                timeline.slots().stream().map(Slot::title).toList());
+        Slot late = timeline.slots().get(4);
+        assertEquals(LocalTime.of(0, 30), late.endTime());
+        assertTrue(late.endsNextDay());
+        assertEquals(LocalTime.of(7, 15), timeline.slots().get(2).endTime()); // no duration, no time taken
+
+        assertEquals(List.of(
+                new Gap(LocalTime.of(7, 45), LocalTime.of(8, 0), 15),
+                new Gap(LocalTime.of(8, 15), LocalTime.of(23, 30), 915)
+        ), timeline.gaps());
+        assertEquals(List.of(new Overlap(13, 14, LocalTime.of(7, 15), LocalTime.of(7, 30), 15)), timeline.overlaps());
+        assertEquals(List.of("Whenever"), timeline.unscheduled().stream().map(Slot::title).toList());
+    }
+
+    @Test
+    void getActiveTimeline_shouldBeCached_untilTheActiveRoutineChanges() {
+        Routine morning = routineService.addRoutine(routine("Morning"));
+        Routine evening = routineService.addRoutine(routine("Evening"));
+        routineService.activateRoutine(morning.getRoutineId());
+        taskService.addTask(morning.getRoutineId(), task(null, "Run", "07:00", 30));
+
+        RoutineTimeline first = timelineService.getActiveTimeline(owner.getUserId());
+        assertSame(first, timelineService.getActiveTimeline(owner.getUserId()));
+
+        // Another routine's tasks are not on the timeline: it stays cached.
+        taskService.addTask(evening.getRoutineId(), task(null, "Read", "21:00", 30));
+        assertSame(first, timelineService.getActiveTimeline(owner.getUserId()));
+
+        taskService.addTask(morning.getRoutineId(), task(null, "Shower", "07:30", 15));
+        assertEquals(List.of("Run", "Shower"), titles(timelineService.getActiveTimeline(owner.getUserId())));
+
+        routineService.activateRoutine(evening.getRoutineId());
+        RoutineTimeline switched = timelineService.getActiveTimeline(owner.getUserId());
+        assertEquals(evening.getRoutineId(), switched.routineId());
+        assertEquals(List.of("Read"), titles(switched));
+    }
+
+    @Test
+    void getActiveTimeline_shouldBeNotFound_withoutAnActiveRoutine() {
+        Routine routine = routineService.addRoutine(routine("Morning"));
+        assertThrows(EntityNotFoundException.class, () -> timelineService.getActiveTimeline(owner.getUserId()));
+
+        // Not found is not cached.
+        routineService.activateRoutine(routine.getRoutineId());
+        assertEquals(routine.getRoutineId(), timelineService.getActiveTimeline(owner.getUserId()).routineId());
+
+        routineService.deleteRoutine(routine.getRoutineId());
+        assertThrows(EntityNotFoundException.class, () -> timelineService.getActiveTimeline(owner.getUserId()));
+    }
+
+    private static List<String> titles(RoutineTimeline timeline) {
+        return timeline.slots().stream().map(Slot::title).toList();
+    }
+
+    private static Task task(Integer id, String title, String startTime, Integer duration) {
+        Task task = new Task();
+        task.setTaskId(id);
+        task.setTitle(title);
+        task.setStartTime(startTime == null ? null : LocalTime.parse(startTime));
+        task.setDuration(duration);
+        return task;
+    }
+}
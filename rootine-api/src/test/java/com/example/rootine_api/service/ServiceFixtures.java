@@ -0,0 +1,27 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+
+/**
+ * Unsaved entities for the service tests.
+ */
+final class ServiceFixtures {
+
+    private ServiceFixtures() {
+    }
+
+    static Routine routine(User user, String name) {
+        Routine routine = new Routine();
+        routine.setName(name);
+        routine.setUser(user);
+        return routine;
+    }
+
+    static Task task(String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        return task;
+    }
+}
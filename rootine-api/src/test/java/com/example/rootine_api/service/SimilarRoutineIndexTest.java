@@ -0,0 +1,86 @@
+package com.example.rootine_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarRoutineIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void findSimilar_shouldMatchRewordedPromptsOnly() {
+        SimilarRoutineIndex index = new SimilarRoutineIndex(objectMapper, meterRegistry, 0.8, 100, "", true);
+        index.add("Morning routine for a marathon runner, with stretching", "runner");
+        index.add("Study plan for final exams in chemistry", "study");
+
+        assertEquals("runner", index.findSimilar("morning routine for marathon runner with stretching!"));
+        assertEquals("study", index.findSimilar("STUDY PLAN: final exams in chemistry"));
+        assertNull(index.findSimilar("Evening wind-down routine for better sleep"));
+
+        assertEquals(2.0, meterRegistry.get("openai.routine.similar").tag("result", "reused").counter().count());
+        assertEquals(1.0, meterRegistry.get("openai.routine.similar").tag("result", "missed").counter().count());
+    }
+
+    @Test
+    void findSimilar_shouldRequireTheSameNumbersAndTimes() {
+        SimilarRoutineIndex index = new SimilarRoutineIndex(objectMapper, meterRegistry, 0.8, 100, "", true);
+        index.add("Morning routine waking up at 6am with a 30 minute run", "early");
+
+        assertNull(index.findSimilar("Morning routine waking up at 9am with a 30 minute run"));
+        assertNull(index.findSimilar("Morning routine waking up at 6am with a 60 minute run"));
+        assertNull(index.findSimilar("Morning routine waking up at 6pm with a 30 minute run"));
+        assertEquals("early", index.findSimilar("morning routine, waking up at 6 AM with a 30-minute run"));
+        assertEquals(List.of("30", "45", "6am", "7"),
+                SimilarRoutineIndex.quantities("run 30 minutes at 6 am then 7 45"));
+    }
+
+    @Test
+    void add_shouldEvictOldestEntriesBeyondMaxSize() {
+        SimilarRoutineIndex index = new SimilarRoutineIndex(objectMapper, meterRegistry, 0.8, 2, "", true);
+        index.add("weekday gym routine", "gym");
+        index.add("weekend hiking plan", "hike");
+        index.add("piano practice schedule", "piano");
+
+        assertEquals(2, index.size());
+        assertNull(index.findSimilar("weekday gym routine"));
+        assertEquals("piano", index.findSimilar("piano practice schedule"));
+    }
+
+    @Test
+    void snapshot_shouldSurviveRestart(@TempDir Path dir) throws Exception {
+        String path = dir.resolve("index/similar.json").toString();
+        SimilarRoutineIndex index = new SimilarRoutineIndex(objectMapper, meterRegistry, 0.8, 100, path, true);
+        index.add("Morning routine for a marathon runner", "runner");
+        index.snapshot();
+        assertTrue(Files.exists(Path.of(path)));
+
+        SimilarRoutineIndex restarted = new SimilarRoutineIndex(objectMapper, new SimpleMeterRegistry(), 0.8, 100, path, true);
+        restarted.load();
+
+        assertEquals(1, restarted.size());
+        assertEquals("runner", restarted.findSimilar("morning routine for a marathon runner!"));
+    }
+
+    @Test
+    void load_shouldDropSnapshotFromAnotherOutputMode(@TempDir Path dir) {
+        String path = dir.resolve("similar.json").toString();
+        // Legacy responses were never validated, so structured mode must not reuse them.
+        SimilarRoutineIndex legacy = new SimilarRoutineIndex(objectMapper, meterRegistry, 0.8, 100, path, false);
+        legacy.add("Morning routine for a marathon runner", "unvalidated");
+        legacy.snapshot();
+
+        SimilarRoutineIndex structured = new SimilarRoutineIndex(objectMapper, new SimpleMeterRegistry(), 0.8, 100, path, true);
+        structured.load();
+
+        assertEquals(0, structured.size());
+    }
+}
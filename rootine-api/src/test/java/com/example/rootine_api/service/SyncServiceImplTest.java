@@ -0,0 +1,125 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.RoutineChangeEvent;
+import com.example.rootine_api.dto.SyncChanges;
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Import({SyncServiceImpl.class, SyncVersionTracker.class})
+class SyncServiceImplTest extends CommittingServiceTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private RoutineService routineService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private Routine routine;
+
+    @BeforeEach
+    void setUp() {
+        routine = routine("Morning");
+        for (String title : List.of("Wake up", "Stretch", "Run")) {
+            Task task = ServiceFixtures.task(title);
+            task.setRoutine(routine);
+            routine.getTasks().add(task);
+        }
+        routine = routineService.addRoutine(routine);
+    }
+
+    @Test
+    void getChanges_shouldReturnFullSnapshot_withoutSince() {
+        SyncChanges changes = syncService.getChanges(owner.getUserId(), null);
+
+        assertTrue(changes.full());
+        assertEquals(1, changes.version());
+        assertEquals(1, changes.routines().size());
+        assertEquals(3, changes.tasks().size());
+        assertTrue(changes.deleted().isEmpty());
+    }
+
+    @Test
+    void getChanges_shouldReturnOnlyRowsChangedAfterSince() {
+        long since = syncService.getChanges(owner.getUserId(), null).version();
+        Task stretch = taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(routine.getRoutineId()).get(1);
+
+        Task updates = new Task();
+        updates.setIsCompleted(true);
+        taskService.updateTask(stretch.getTaskId(), updates);
+
+        SyncChanges changes = syncService.getChanges(owner.getUserId(), since);
+        assertFalse(changes.full());
+        assertEquals(since + 1, changes.version());
+        assertTrue(changes.routines().isEmpty());
+        assertEquals(1, changes.tasks().size());
+        assertEquals(stretch.getTaskId(), changes.tasks().get(0).taskId());
+        assertTrue(changes.tasks().get(0).isCompleted());
+
+        // Nothing new since the latest version
+        SyncChanges none = syncService.getChanges(owner.getUserId(), changes.version());
+        assertTrue(none.routines().isEmpty() && none.tasks().isEmpty() && none.deleted().isEmpty());
+    }
+
+    @Test
+    void getChanges_shouldReportDeletionsAsTombstones() {
+        long since = syncService.getChanges(owner.getUserId(), null).version();
+        Task run = taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(routine.getRoutineId()).get(2);
+
+        taskService.deleteTask(run.getTaskId());
+        SyncChanges afterTaskDelete = syncService.getChanges(owner.getUserId(), since);
+        assertTrue(afterTaskDelete.tasks().isEmpty());
+        assertEquals(
+                List.of(new SyncChanges.Deletion(RoutineChangeEvent.Entity.TASK, run.getTaskId(), routine.getRoutineId())),
+                afterTaskDelete.deleted()
+        );
+
+        routineService.deleteRoutine(routine.getRoutineId());
+        SyncChanges afterRoutineDelete = syncService.getChanges(owner.getUserId(), afterTaskDelete.version());
+        assertEquals(
+                List.of(new SyncChanges.Deletion(RoutineChangeEvent.Entity.ROUTINE, routine.getRoutineId(), routine.getRoutineId())),
+                afterRoutineDelete.deleted()
+        );
+    }
+
+    @Test
+    void getChanges_shouldReturnOnlyTheRoutinesAnActivationSwitched() {
+        Routine evening = routineService.addRoutine(routine("Evening"));
+        routineService.addRoutine(routine("Weekend"));
+        routineService.activateRoutine(routine.getRoutineId());
+        long since = syncService.getChanges(owner.getUserId(), null).version();
+
+        routineService.activateRoutine(evening.getRoutineId());
+
+        SyncChanges changes = syncService.getChanges(owner.getUserId(), since);
+        assertEquals(
+                List.of(routine.getRoutineId(), evening.getRoutineId()),
+                changes.routines().stream().map(SyncChanges.RoutineChange::routineId).sorted().toList()
+        );
+    }
+
+    @Test
+    void getChanges_shouldReturnWholeRoutineOrder_afterReorder() {
+        long since = syncService.getChanges(owner.getUserId(), null).version();
+        List<Integer> ids = new ArrayList<>(taskRepo.findTaskIdsByRoutineId(routine.getRoutineId()));
+        Collections.reverse(ids);
+
+        taskService.reorderTasks(routine.getRoutineId(), ids);
+
+        SyncChanges changes = syncService.getChanges(owner.getUserId(), since);
+        assertEquals(3, changes.tasks().size());
+        assertTrue(changes.routines().isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskServiceImpl.class, TaskPositionAllocator.class, PageSize.class, RoutineReadCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each append commits on its own thread
+class TaskServiceImplConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int APPENDS = 2000;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private Routine routine;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("owner@example.com", "hash", "Owner"));
+
+        routine = new Routine();
+        routine.setName("Concurrent appends");
+        routine.setUser(owner);
+        routine = routineRepo.save(routine);
+
+        Mockito.when(authService.isCurrentUserAdmin()).thenReturn(false);
+        Mockito.when(authService.getCurrentUserId()).thenReturn(owner.getUserId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepo.deleteAll();
+        routineRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    @Test
+    void addTask_shouldAllocateDistinctPositions_underConcurrentAppends() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Callable<Integer>> appends = new ArrayList<>();
+        for (int i = 0; i < APPENDS; i++) {
+            String title = "Task " + i;
+            appends.add(() -> {
+                Task task = new Task();
+                task.setTitle(title);
+                return taskService.addTask(routine.getRoutineId(), task).getPosition();
+            });
+        }
+
+        Set<Integer> positions = new HashSet<>();
+        try {
+            for (Future<Integer> result : pool.invokeAll(appends)) {
+                positions.add(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        // Every append got its own slot, and the slots are exactly the first APPENDS sparse ranks (no duplicates).
+        int gap = TaskPositionAllocator.POSITION_GAP;
+        assertEquals(APPENDS, positions.size());
+        assertEquals(0, positions.stream().mapToInt(Integer::intValue).min().orElseThrow());
+        assertEquals((APPENDS - 1) * gap, positions.stream().mapToInt(Integer::intValue).max().orElseThrow());
+        assertTrue(positions.stream().allMatch(position -> position % gap == 0));
+        assertEquals(APPENDS, taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(routine.getRoutineId()).size());
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.model.Routine;
+import com.example.rootine_api.model.Task;
+import com.example.rootine_api.model.User;
+import com.example.rootine_api.pagination.KeysetPage;
+import com.example.rootine_api.pagination.PageSize;
+import com.example.rootine_api.repository.RoutineRepo;
+import com.example.rootine_api.repository.TaskRepo;
+import com.example.rootine_api.repository.UserRepo;
+import com.example.rootine_api.security.AuthService;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TaskServiceImpl.class, TaskPositionAllocator.class, PageSize.class, RoutineReadCache.class, SimpleMeterRegistry.class})
+class TaskServiceImplOrderingTest {
+
+    private static final int GAP = TaskPositionAllocator.POSITION_GAP;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private RoutineRepo routineRepo;
+
+    @Autowired
+    private TaskRepo taskRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private Routine routine;
+    private List<Integer> taskIds;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepo.save(new User("owner@example.com", "hash", "Owner"));
+        Mockito.when(authService.isCurrentUserAdmin()).thenReturn(false);
+        Mockito.when(authService.getCurrentUserId()).thenReturn(owner.getUserId());
+
+        routine = new Routine();
+        routine.setName("Ordering");
+        routine.setUser(owner);
+        routine = routineRepo.save(routine);
+
+        taskIds = new ArrayList<>();
+        for (String title : List.of("A", "B", "C", "D")) {
+            Task task = new Task();
+            task.setTitle(title);
+            taskIds.add(taskService.addTask(routine.getRoutineId(), task).getTaskId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void moveTask_shouldUpdateOnlyTheMovedRow() {
+        Statistics statistics = statistics();
+
+        // D before B: A, D, B, C
+        Task moved = taskService.moveTask(taskIds.get(3), taskIds.get(1), null);
+        entityManager.flush();
+
+        assertEquals(GAP / 2, moved.getPosition());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        assertEquals(List.of(taskIds.get(0), taskIds.get(3), taskIds.get(1), taskIds.get(2)), currentOrder());
+    }
+
+    @Test
+    void moveTask_shouldRebalance_whenGapIsExhausted() {
+        // Repeatedly moving into the same slot halves the gap until it runs out.
+        for (int i = 0; i < 12; i++) {
+            Integer mover = taskIds.get(i % 2 == 0 ? 3 : 2);
+            taskService.moveTask(mover, taskIds.get(1), null);
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        List<Integer> order = currentOrder();
+        assertEquals(taskIds.get(0), order.get(0));
+        assertEquals(taskIds.get(1), order.get(3));
+        List<Integer> positions = taskRepo.findByRoutineRoutineIdOrderByPositionAscTaskIdAsc(routine.getRoutineId())
+                .stream().map(Task::getPosition).distinct().toList();
+        assertEquals(4, positions.size());
+    }
+
+    @Test
+    void reorderTasks_shouldRewriteAllPositionsInOneStatement() {
+        Statistics statistics = statistics();
+        List<Integer> reversed = new ArrayList<>(taskIds);
+        Collections.reverse(reversed);
+
+        taskService.reorderTasks(routine.getRoutineId(), reversed);
+
+        assertEquals(0, statistics.getEntityUpdateCount());
+        assertEquals(reversed, currentOrder());
+        assertEquals(3 * GAP, taskRepo.findById(reversed.get(3)).orElseThrow().getPosition());
+    }
+
+    @Test
+    void getTasksByRoutineId_shouldPageByPosition() {
+        taskService.moveTask(taskIds.get(3), taskIds.get(0), null); // D, A, B, C
+        entityManager.flush();
+        entityManager.clear();
+
+        KeysetPage<Task> first = taskService.getTasksByRoutineId(routine.getRoutineId(), null, 3);
+        KeysetPage<Task> second = taskService.getTasksByRoutineId(routine.getRoutineId(), first.getNextCursor(), 3);
+
+        assertEquals(List.of(taskIds.get(3), taskIds.get(0), taskIds.get(1)),
+                first.getItems().stream().map(Task::getTaskId).toList());
+        assertEquals(List.of(taskIds.get(2)), second.getItems().stream().map(Task::getTaskId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getTasksByRoutineId_shouldPagePastLegacyTasksWithoutPosition() {
+        entityManager.createQuery("UPDATE Task t SET t.position = NULL WHERE t.taskId IN :ids")
+                .setParameter("ids", List.of(taskIds.get(1), taskIds.get(2), taskIds.get(3)))
+                .executeUpdate();
+        entityManager.clear();
+
+        // Null positions sort first (by id), so both page boundaries fall on a null key.
+        List<Integer> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetPage<Task> page = taskService.getTasksByRoutineId(routine.getRoutineId(), cursor, 2);
+            page.getItems().forEach(task -> paged.add(task.getTaskId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(taskIds.get(1), taskIds.get(2), taskIds.get(3), taskIds.get(0)), paged);
+    }
+
+    private List<Integer> currentOrder() {
+        return taskRepo.findTaskIdsByRoutineId(routine.getRoutineId());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
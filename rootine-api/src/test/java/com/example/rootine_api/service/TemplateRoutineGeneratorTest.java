@@ -0,0 +1,83 @@
+package com.example.rootine_api.service;
+
+import com.example.rootine_api.dto.GeneratedRoutine;
+import com.example.rootine_api.model.Template;
+import com.example.rootine_api.repository.TemplateRepo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(TemplateRoutineGenerator.class)
+class TemplateRoutineGeneratorTest {
+
+    @Autowired
+    private TemplateRoutineGenerator generator;
+
+    @Autowired
+    private TemplateRepo templateRepo;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        save("Default Work Routine", true, """
+                {"notifications": true, "detailLevel": "medium", "tasks": [
+                  {"title": "Check email", "taskType": "routine", "startTime": "08:00:00", "duration": 20, "priority": "medium"},
+                  {"title": "Deep work block", "taskType": "routine", "startTime": "08:30:00", "duration": 120, "priority": "high"}
+                ]}
+                """);
+        save("Fitness Routine", true, """
+                {"detailLevel": "low", "description": "Morning workout", "tasks": [
+                  {"title": "Warm up", "taskType": "habit", "startTime": "06:00:00", "duration": 10, "priority": "medium"},
+                  {"title": "Run 5k", "taskType": "habit", "startTime": "06:10:00", "duration": 30, "priority": "high"}
+                ]}
+                """);
+        // Settings only and invalid templates are not indexed.
+        save("Preferences", true, "{\"notifications\": true, \"preferred_start\": \"07:00\"}");
+        save("Broken", false, "{\"tasks\": [{\"title\": \"Run\", \"duration\": -5}]}");
+        generator.refresh();
+    }
+
+    @Test
+    void generate_shouldPickTheClosestTemplate() {
+        GeneratedRoutine fitness = generator.generate("a morning workout with running");
+        assertEquals("Fitness Routine", fitness.getName());
+        assertEquals(2, fitness.getTasks().size());
+        assertEquals("Run 5k", fitness.getTasks().get(1).getTitle());
+
+        GeneratedRoutine work = generator.generate("Workday with deep focus and email");
+        assertEquals("Default Work Routine", work.getName());
+    }
+
+    @Test
+    void generate_shouldFallBackToFirstSystemTemplateWhenNothingMatches() {
+        GeneratedRoutine routine = generator.generate("zzz qqq");
+
+        assertEquals("Default Work Routine", routine.getName());
+        // Fresh copies: changing one result does not leak into the next.
+        routine.getTasks().clear();
+        assertEquals(2, generator.generate("zzz qqq").getTasks().size());
+    }
+
+    private void save(String title, boolean system, String config) throws Exception {
+        Template template = new Template();
+        template.setTitle(title);
+        template.setIsSystem(system);
+        template.setConfigJson(objectMapper.readTree(config));
+        templateRepo.save(template);
+    }
+}
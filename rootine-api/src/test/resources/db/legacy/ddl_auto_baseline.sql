@@ -0,0 +1,14 @@
+-- A database as ddl-auto=update created it before the Flyway migrations: the DDL Hibernate 6.6
+-- (MySQLDialect) generates for the baseline User, Routine and Task entities, with IDENTITY ids.
+-- LegacySchemaUpgradeTest migrates it.
+create table routine (routine_id integer not null auto_increment, created_at datetime(6), description varchar(255), detail_level enum ('high','low','medium'), is_active bit, name varchar(255) not null, user_id integer, primary key (routine_id)) engine=InnoDB;
+create table task (task_id integer not null auto_increment, created_at TIMESTAMP(0) null, description varchar(255), duration integer, is_completed bit, position integer, priority enum ('high','low','medium'), start_time time(6), type enum ('event','habit','one_time','routine'), title varchar(150) not null, routine_id integer not null, primary key (task_id)) engine=InnoDB;
+create table user (user_id integer not null auto_increment, created_at datetime(6), email varchar(255) not null, last_login datetime(6), name varchar(255) not null, password varchar(255) not null, uuid BINARY(16) not null, primary key (user_id)) engine=InnoDB;
+alter table user add constraint UKob8kqyqqgmefl0aco34akdtpe unique (email);
+alter table user add constraint UK1xc1iry6gqjrvh5cpajiq7l2f unique (uuid);
+alter table routine add constraint FKrnd1817o40yyif3tnuw9medf8 foreign key (user_id) references user (user_id) on delete cascade;
+alter table task add constraint FK19n14np39wle6vdmo8l53w8d9 foreign key (routine_id) references routine (routine_id) on delete cascade;
+
+insert into user (user_id, uuid, name, email, password) values (1, X'0123456789abcdef0123456789abcdef', 'Legacy', 'legacy@example.com', 'hash');
+insert into routine (routine_id, user_id, name, is_active) values (1, 1, 'Morning', 1), (2, 1, 'Evening', 0), (7, 1, 'Weekend', 0);
+insert into task (task_id, routine_id, title, position) values (1, 1, 'Wake up', 0), (2, 1, 'Run', 1024), (90, 7, 'Hike', null);
@@ -0,0 +1,3 @@
+-- H2 has real sequences, which is what Hibernate uses for routine_seq and task_seq there.
+CREATE SEQUENCE routine_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
@@ -11,4 +11,19 @@ API.interceptors.request.use((req) => {
 	return req;
 });
 
+/**
+ * Collects every page of a keyset-paginated listing endpoint.
+ * The backend returns a JSON array per page and the next page's cursor in X-Next-Cursor.
+ */
+export const getAllPages = async (url, params = {}) => {
+	const items = [];
+	let cursor;
+	do {
+		const res = await API.get(url, { params: { ...params, cursor } });
+		items.push(...res.data);
+		cursor = res.headers["x-next-cursor"];
+	} while (cursor);
+	return items;
+};
+
 export default API;
@@ -1,13 +1,11 @@
-import API from "./httpClient";
+import API, { getAllPages } from "./httpClient";
 
 export const getRoutines = async () => {
-  const res = await API.get("/routine/routines");
-  return res.data;
+  return getAllPages("/routine/routines");
 };
 
 export const getRoutineByUserId = async (userId) => {
-  const res = await API.get(`/routine/user/${userId}`);
-  return res.data;
+  return getAllPages(`/routine/user/${userId}`);
 };
 
 export const createRoutine = async (routine) => {
@@ -15,6 +13,14 @@ export const createRoutine = async (routine) => {
   return res.data;
 };
 
+// Generates a routine from a free-text prompt and saves it in one call; resolves to the saved routine.
+export const generateRoutine = async (prompt) => {
+  const res = await API.post("/routine/generate", prompt, {
+    headers: { "Content-Type": "text/plain" },
+  });
+  return res.data;
+};
+
 export const updateRoutine = async (id, routineUpdates) => {
   const res = await API.put(`/routine/${id}`, routineUpdates);
   return res.data;
@@ -1,11 +1,11 @@
-import API from "./httpClient.js";
+import API, { getAllPages } from "./httpClient.js";
 
 /**
  * Backend controller base path: /task
  *
  * Available endpoints:
  * - GET    /task/{id}
- * - GET    /task/routine/{routineId}
+ * - GET    /task/routine/{routineId}   (paginated: ?cursor=&limit=, next cursor in X-Next-Cursor)
  * - POST   /task?routineId={routineId}
  * - PUT    /task/{id}
  * - PUT    /task/routine/{routineId}/reorder
@@ -18,8 +18,7 @@ export const getTaskById = async (taskId) => {
 };
 
 export const getTasksByRoutineId = async (routineId) => {
-  const res = await API.get(`/task/routine/${routineId}`);
-  return res.data;
+  return getAllPages(`/task/routine/${routineId}`);
 };
 
 export const createTask = async ({ routineId, ...task }) => {
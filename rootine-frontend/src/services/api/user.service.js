@@ -1,8 +1,7 @@
-import API from "./httpClient.js";
+import API, { getAllPages } from "./httpClient.js";
 
 export const getAllUsers = async () => {
-  const res = await API.get("/user/users");
-  return res.data;
+  return getAllPages("/user/users");
 };
 
 export const getUserById = async (id) => {